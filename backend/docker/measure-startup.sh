@@ -0,0 +1,39 @@
+#!/bin/sh
+# Time from container start to the first answered HTTP request, for one compose service, with the
+# image's startup optimisations off (plain JVM start) and on (AppCDS archive + Spring AOT).
+# Postgres and Redis must already be up: docker compose up -d postgres redis
+#
+#   docker/measure-startup.sh [service] [container port] [path] [runs]
+#   docker/measure-startup.sh api 8000 /health/live
+#   docker/measure-startup.sh worker 8001 /actuator/health
+set -e
+
+SERVICE=${1:-api}
+PORT=${2:-8000}
+HEALTH_PATH=${3:-/health/live}
+RUNS=${4:-3}
+HOST_PORT=$((PORT + 10000))
+
+measure() {
+    label=$1
+    shift
+    total=0
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        start=$(date +%s%3N)
+        id=$(docker compose run -d --rm --no-deps -p "$HOST_PORT:$PORT" "$@" "$SERVICE")
+        # Any HTTP status counts: the request was accepted, whatever the dependencies say
+        until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$HOST_PORT$HEALTH_PATH")" != "000" ]; do
+            sleep 0.05
+        done
+        elapsed=$(( $(date +%s%3N) - start ))
+        docker stop "$id" > /dev/null
+        echo "$SERVICE $label run $((i + 1)): ${elapsed} ms"
+        total=$((total + elapsed))
+        i=$((i + 1))
+    done
+    echo "$SERVICE $label average: $((total / RUNS)) ms"
+}
+
+measure baseline -e CDS_ENABLED=false -e AOT_ENABLED=false
+measure cds+aot
@@ -0,0 +1,43 @@
+#!/bin/sh
+# Starts the gateway from the jar unpacked in APP_DIR, with the AppCDS archive and Spring AOT
+# bean definitions when the image has them.
+#
+#   start.sh        run the application
+#   start.sh train  training run at image build: refresh the context without Postgres or Redis
+#                   (the "training" profile), exit, and write the classes it loaded to CDS_ARCHIVE
+#
+# CDS_ENABLED=false or AOT_ENABLED=false turn either off at run time, e.g. to measure startup
+# without them on the same image (see measure-startup.sh). JAVA_OPTS is passed through.
+set -e
+
+APP_DIR=${APP_DIR:-/app/exploded}
+CDS_ARCHIVE=${CDS_ARCHIVE:-/app/app.jsa}
+cd "$APP_DIR"
+
+# CDS only maps classes from plain jars on an identical class path, so use Boot's own ordering.
+# The image build packs BOOT-INF/classes into BOOT-INF/application.jar (see the Dockerfiles)
+CLASSPATH="BOOT-INF/application.jar$(sed -n 's/^- "\(.*\)"$/:\1/p' BOOT-INF/classpath.idx | tr -d '\n')"
+MAIN_CLASS=$(sed -n 's/^Start-Class: *//p' META-INF/MANIFEST.MF | tr -d '\r')
+
+AOT_OPTS=""
+if [ "${AOT_ENABLED:-true}" = "true" ] && unzip -l BOOT-INF/application.jar \
+        | grep -q "$(echo "$MAIN_CLASS" | tr . /)__ApplicationContextInitializer.class"; then
+    AOT_OPTS="-Dspring.aot.enabled=true"
+fi
+
+if [ "$1" = "train" ]; then
+    shift
+    # Never with AOT: its conditions were fixed when the jar was built, so the training profile
+    # could not switch Flyway off and the run would try to migrate a database that is not there.
+    # The generated bean definition classes are then left out of the archive and load from the jar.
+    PROFILES="${SPRING_PROFILES_ACTIVE:+$SPRING_PROFILES_ACTIVE,}training"
+    exec java -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -Dspring.context.exit=onRefresh \
+        -Dspring.profiles.active="$PROFILES" $JAVA_OPTS -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
+fi
+
+CDS_OPTS=""
+if [ "${CDS_ENABLED:-true}" = "true" ] && [ -f "$CDS_ARCHIVE" ]; then
+    CDS_OPTS="-XX:SharedArchiveFile=$CDS_ARCHIVE"
+fi
+
+exec java $CDS_OPTS $AOT_OPTS $JAVA_OPTS -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
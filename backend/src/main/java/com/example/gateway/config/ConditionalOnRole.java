@@ -0,0 +1,20 @@
+package com.example.gateway.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Loads the bean only in processes whose gateway.role includes the given role (ALL includes both).
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnRoleCondition.class)
+public @interface ConditionalOnRole {
+
+    GatewayRole value();
+}
@@ -8,6 +8,7 @@ import com.example.gateway.models.Merchant;
 import com.example.gateway.repositories.MerchantRepository;
 
 @Configuration
+@ConditionalOnRole(GatewayRole.API)
 public class DataSeederConfig {
 
     @Bean
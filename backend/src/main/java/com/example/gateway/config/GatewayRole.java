@@ -0,0 +1,28 @@
+package com.example.gateway.config;
+
+import java.util.Locale;
+
+/**
+ * What a process is for, set by gateway.role. API serves HTTP and enqueues jobs, WORKER consumes
+ * jobs and runs the background schedules, ALL (the default) does both in one process.
+ * Beans that belong to one side only are marked with ConditionalOnRole.
+ */
+public enum GatewayRole {
+    API,
+    WORKER,
+    ALL;
+
+    public static final String PROPERTY = "gateway.role";
+
+    public boolean includes(GatewayRole role) {
+        return this == ALL || this == role;
+    }
+
+    public static GatewayRole of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(PROPERTY + " must be api, worker or all, not '" + value + "'");
+        }
+    }
+}
@@ -16,9 +16,19 @@ public class JobConfig {
     @Value("${spring.data.redis.port:6379}")
     private int redisPort;
 
+    // How long a lock outlives a node that stopped renewing it (see LeaderElection)
+    @Value("${scheduler.leader.lease-ms:10000}")
+    private long lockWatchdogTimeout;
+
+    // Connect on first use instead of at startup (the CDS training run has no Redis)
+    @Value("${redisson.lazy-initialization:false}")
+    private boolean lazyInitialization;
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
+        config.setLockWatchdogTimeout(lockWatchdogTimeout);
+        config.setLazyInitialization(lazyInitialization);
         config.useSingleServer()
                 .setAddress("redis://" + redisHost + ":" + redisPort);
         return Redisson.create(config);
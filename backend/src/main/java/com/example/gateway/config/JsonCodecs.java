@@ -0,0 +1,67 @@
+package com.example.gateway.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Readers and writers built once from the application ObjectMapper (see JacksonConfig).
+ *
+ * ObjectReader/ObjectWriter are immutable and thread-safe. A reader bound to a type keeps its
+ * root deserializer, so it skips the per-call lookup that ObjectMapper.readValue(json, type)
+ * pays. Since everything shares one mapper, serializer caches and Jackson's recycled I/O buffers
+ * are shared too, instead of being rebuilt per class.
+ */
+public class JsonCodecs {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final ObjectReader treeReader;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JsonCodecs(ObjectMapper objectMapper, List<Class<?>> preloadedTypes) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer();
+        this.treeReader = objectMapper.readerFor(JsonNode.class);
+        // Resolving the deserializer up front keeps the first job of each type off the slow path
+        preloadedTypes.forEach(this::readerFor);
+    }
+
+    public ObjectMapper mapper() {
+        return objectMapper;
+    }
+
+    public ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    public <T> T read(String json, Class<T> type) throws JsonProcessingException {
+        return readerFor(type).readValue(json);
+    }
+
+    public JsonNode readTree(String json) throws JsonProcessingException {
+        return treeReader.readTree(json);
+    }
+
+    public String write(Object value) throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    public byte[] writeBytes(Object value) throws JsonProcessingException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    public ObjectNode createObjectNode() {
+        return objectMapper.createObjectNode();
+    }
+
+    public JsonNode valueToTree(Object value) {
+        return objectMapper.valueToTree(value);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.gateway.config;
+
+import java.util.Map;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+class OnRoleCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        GatewayRole current = GatewayRole.of(context.getEnvironment().getProperty(GatewayRole.PROPERTY, "all"));
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnRole.class.getName());
+        GatewayRole required = (GatewayRole) attributes.get("value");
+        return current.includes(required)
+                ? ConditionOutcome.match("gateway.role " + current + " includes " + required)
+                : ConditionOutcome.noMatch("gateway.role " + current + " excludes " + required);
+    }
+}
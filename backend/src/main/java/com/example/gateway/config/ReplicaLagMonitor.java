@@ -0,0 +1,69 @@
+package com.example.gateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Measures how far the replica trails the primary and marks it unavailable beyond max-lag-ms,
+ * or when it cannot be queried. Reads then fall back to the primary until it catches up.
+ *
+ * Lag is zero once the replica has replayed the primary's current WAL position; otherwise it is
+ * the age of the last replayed transaction. Comparing positions first keeps an idle primary
+ * (no new transactions, so an old replay timestamp) from looking like a lagging replica.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile boolean available;
+    private volatile double lagMillis = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+        Gauge.builder("gateway.datasource.replica.lag", this, monitor -> monitor.lagMillis / 1000.0)
+                .description("Replica replay lag behind the primary")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("gateway.datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("1 while read-only requests are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        try {
+            String primaryLsn = primary.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+            Double lag = replica.queryForObject(
+                    "SELECT CASE WHEN pg_last_wal_replay_lsn() >= ?::pg_lsn THEN 0 "
+                            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END",
+                    Double.class, primaryLsn);
+            lagMillis = lag != null ? lag : Double.NaN;
+            boolean nowAvailable = lag != null && lag <= maxLagMillis;
+            if (nowAvailable != available) {
+                logger.info("Replica {} (lag {} ms)", nowAvailable ? "available" : "unavailable", Math.round(lagMillis));
+            }
+            available = nowAvailable;
+        } catch (Exception e) {
+            if (available) {
+                logger.warn("Replica lag check failed, reading from primary: {}", e.getMessage());
+            }
+            lagMillis = Double.NaN;
+            available = false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.gateway.config;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends a connection to the replica only when all of these hold:
+ * the caller opted in through {@link #preferReplica(Supplier)}, the current transaction is
+ * read-only, and the replica is available (lag within bounds). Everything else goes to the primary.
+ *
+ * Opting in is explicit because Spring Data marks every repository finder
+ * {@code @Transactional(readOnly = true)}, including the reads workers and write paths make
+ * before updating a row; those must see the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy. The transaction manager asks for a connection
+ * before the read-only flag is bound to the thread, so routing has to wait for the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> REPLICA_PREFERRED = new ThreadLocal<>();
+
+    private final BooleanSupplier replicaAvailable;
+
+    public ReplicaRoutingDataSource(BooleanSupplier replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    /**
+     * Runs the work with replica reads allowed on this thread, restoring the previous setting afterwards.
+     */
+    public static <T> T preferReplica(Supplier<T> work) {
+        Boolean previous = REPLICA_PREFERRED.get();
+        REPLICA_PREFERRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                REPLICA_PREFERRED.remove();
+            } else {
+                REPLICA_PREFERRED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replica = Boolean.TRUE.equals(REPLICA_PREFERRED.get())
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaAvailable.getAsBoolean();
+        return replica ? Target.REPLICA : Target.PRIMARY;
+    }
+}
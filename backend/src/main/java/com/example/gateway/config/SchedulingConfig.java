@@ -0,0 +1,13 @@
+package com.example.gateway.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled for every node. Most scheduled work is per node (job consumers, heartbeat,
+ * shard leases); cluster-wide singletons check LeaderElection before they run.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -19,7 +19,7 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/health").permitAll()
+                        .requestMatchers("/health", "/health/**").permitAll()
                         .anyRequest().permitAll())
                 .httpBasic(Customizer.withDefaults());
         return http.build();
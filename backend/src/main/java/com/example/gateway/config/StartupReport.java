@@ -0,0 +1,72 @@
+package com.example.gateway.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs what it cost to bring this process up in its gateway.role: time to ready, bean count, heap
+ * and resident set size, so API-only, worker-only and combined processes can be compared from
+ * their logs. The resident set size is also exported as gateway.process.rss (Linux only; NaN
+ * elsewhere). Startup time itself is Spring Boot's application.ready.time.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final GatewayRole role;
+
+    public StartupReport(MeterRegistry meterRegistry, @Value("${gateway.role:all}") String role) {
+        this.role = GatewayRole.of(role);
+        Gauge.builder("gateway.process.rss", StartupReport::residentSetBytes)
+                .description("Resident set size of the process")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        double rss = residentSetBytes();
+        logger.info("Ready as role {} in {} ms (JVM up {} ms): {} beans, heap used {} MB of {} MB committed, RSS {}",
+                role,
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                event.getApplicationContext().getBeanDefinitionCount(),
+                heap.getUsed() >> 20,
+                heap.getCommitted() >> 20,
+                Double.isNaN(rss) ? "unknown" : ((long) rss >> 20) + " MB");
+    }
+
+    /**
+     * VmRSS from /proc/self/status, which the kernel reports in kB.
+     */
+    private static double residentSetBytes() {
+        try {
+            List<String> lines = Files.readAllLines(PROC_STATUS);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] parts = line.trim().split("\\s+");
+                    return Long.parseLong(parts[1]) * 1024.0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux, or no procfs
+        }
+        return Double.NaN;
+    }
+}
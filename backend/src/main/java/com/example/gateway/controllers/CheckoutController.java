@@ -1,9 +1,12 @@
 package com.example.gateway.controllers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
+@ConditionalOnRole(GatewayRole.API)
 public class CheckoutController {
 
     @GetMapping({"/checkout", "/checkout/"})
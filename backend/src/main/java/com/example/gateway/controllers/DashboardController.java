@@ -1,5 +1,8 @@
 package com.example.gateway.controllers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.config.JsonCodecs;
 import com.example.gateway.dto.ErrorResponse;
 import com.example.gateway.models.Merchant;
 import com.example.gateway.repositories.MerchantRepository;
@@ -7,7 +10,6 @@ import com.example.gateway.services.AuthenticationService;
 import com.example.gateway.services.IDGeneratorService;
 import com.example.gateway.services.ValidationService;
 import com.example.gateway.services.WebhookService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 @Controller
+@ConditionalOnRole(GatewayRole.API)
 public class DashboardController {
 
     private final AuthenticationService authenticationService;
@@ -22,18 +25,20 @@ public class DashboardController {
     private final MerchantRepository merchantRepository;
     private final IDGeneratorService idGeneratorService;
     private final WebhookService webhookService;
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private final JsonCodecs jsonCodecs;
 
     public DashboardController(AuthenticationService authenticationService,
                                ValidationService validationService,
                                MerchantRepository merchantRepository,
                                IDGeneratorService idGeneratorService,
-                               WebhookService webhookService) {
+                               WebhookService webhookService,
+                               JsonCodecs jsonCodecs) {
         this.authenticationService = authenticationService;
         this.validationService = validationService;
         this.merchantRepository = merchantRepository;
         this.idGeneratorService = idGeneratorService;
         this.webhookService = webhookService;
+        this.jsonCodecs = jsonCodecs;
     }
 
     @GetMapping("/dashboard/webhooks")
@@ -64,7 +69,7 @@ public class DashboardController {
             merchant.setWebhookUrl(url);
             merchantRepository.save(merchant);
 
-            ObjectNode resp = mapper.createObjectNode();
+            ObjectNode resp = jsonCodecs.createObjectNode();
             resp.put("webhook_url", merchant.getWebhookUrl());
             return ResponseEntity.status(HttpStatus.OK).body(resp);
         } catch (IllegalArgumentException e) {
@@ -86,7 +91,7 @@ public class DashboardController {
             merchant.setWebhookSecret(newSecret);
             merchantRepository.save(merchant);
 
-            ObjectNode resp = mapper.createObjectNode();
+            ObjectNode resp = jsonCodecs.createObjectNode();
             resp.put("webhook_secret", newSecret);
             return ResponseEntity.status(HttpStatus.OK).body(resp);
         } catch (IllegalArgumentException e) {
@@ -104,14 +109,14 @@ public class DashboardController {
             @RequestHeader("X-Api-Secret") String apiSecret) {
         try {
             Merchant merchant = authenticationService.authenticateMerchant(apiKey, apiSecret);
-            ObjectNode payload = mapper.createObjectNode();
+            ObjectNode payload = jsonCodecs.createObjectNode();
             payload.put("event", "webhook.test");
             payload.put("message", "Test webhook from dashboard");
             payload.put("timestamp", System.currentTimeMillis());
 
             String logId = webhookService.enqueueCustomWebhook(merchant.getId(), "webhook.test", payload);
 
-            ObjectNode resp = mapper.createObjectNode();
+            ObjectNode resp = jsonCodecs.createObjectNode();
             resp.put("webhook_log_id", logId);
             return ResponseEntity.status(HttpStatus.OK).body(resp);
         } catch (IllegalArgumentException e) {
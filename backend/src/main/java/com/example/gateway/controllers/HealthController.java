@@ -5,115 +5,106 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
 import org.springframework.boot.availability.ReadinessState;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import com.example.gateway.workers.WorkerStatusService;
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.services.HealthSnapshot;
+import com.example.gateway.services.HealthSnapshotService;
 
 @RestController
+@ConditionalOnRole(GatewayRole.API)
 public class HealthController {
 
-    private final JdbcTemplate jdbcTemplate;
-    private final StringRedisTemplate redisTemplate;
+    private static final Map<String, Object> UP = Map.of("status", "UP");
+    private static final Map<String, Object> DOWN = Map.of("status", "DOWN");
+
     private final ApplicationAvailability availability;
-    private final WorkerStatusService workerStatusService;
-    private final boolean redisOptional;
-    private final boolean workerOptional;
+    private final HealthSnapshotService healthSnapshotService;
+    private final long uptimeOriginMillis;
+    private final String version;
 
-    public HealthController(
-            JdbcTemplate jdbcTemplate,
-            StringRedisTemplate redisTemplate,
-            ApplicationAvailability availability,
-            WorkerStatusService workerStatusService,
-            @Value("${health.redis.optional:false}") boolean redisOptional,
-            @Value("${health.worker.optional:true}") boolean workerOptional) {
-        this.jdbcTemplate = jdbcTemplate;
-        this.redisTemplate = redisTemplate;
+    public HealthController(ApplicationAvailability availability, HealthSnapshotService healthSnapshotService) {
         this.availability = availability;
-        this.workerStatusService = workerStatusService;
-        this.redisOptional = redisOptional;
-        this.workerOptional = workerOptional;
+        this.healthSnapshotService = healthSnapshotService;
+        this.uptimeOriginMillis = getApplicationStartTime();
+        this.version = getApplicationVersion();
     }
 
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthController() {
-        String databaseStatus = checkDatabase();
-        String redisStatus = checkRedis();
-        String workerStatus = checkWorker();
+        // Served from the last background check; no dependency is touched on the request path
+        HealthSnapshot snapshot = healthSnapshotService.getSnapshot();
         boolean ready = availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+        String now = ZonedDateTime.now(ZoneId.of("Asia/Kolkata")).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
 
-        boolean databaseOk = "connected".equals(databaseStatus);
-        boolean redisOk = "connected".equals(redisStatus) || (redisOptional && !"connected".equals(redisStatus));
-        boolean workerOk = "running".equals(workerStatus) || (workerOptional && !"running".equals(workerStatus));
-
-        // Get application uptime
-        long uptime = getApplicationUptime();
-        String version = getApplicationVersion();
-        String lastHealthCheck = ZonedDateTime.now(ZoneId.of("Asia/Kolkata"))
-            .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("database", toMillis(snapshot.databaseLatencyMicros()));
+        latency.put("redis", toMillis(snapshot.redisLatencyMicros()));
+        latency.put("worker_service", toMillis(snapshot.workerLatencyMicros()));
 
         Map<String, Object> response = new LinkedHashMap<>();
-        response.put("status", ready && databaseOk && redisOk && workerOk ? "healthy" : "unhealthy");
-        response.put("database", databaseStatus);
-        response.put("redis", redisStatus);
-        response.put("worker_service", workerStatus);
+        response.put("status", ready && dependenciesOk(snapshot) ? "healthy" : "unhealthy");
+        response.put("database", snapshot.databaseStatus());
+        response.put("redis", snapshot.redisStatus());
+        response.put("worker_service", snapshot.workerStatus());
+        response.put("latency_ms", latency);
         response.put("version", version);
-        response.put("uptime", uptime);
-        response.put("last_health_check", lastHealthCheck);
-        response.put("timestamp", lastHealthCheck);
+        response.put("uptime", (System.currentTimeMillis() - uptimeOriginMillis) / 1000);
+        response.put("last_health_check", snapshot.checkedAt() != null
+                ? snapshot.checkedAt().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME) : null);
+        response.put("timestamp", now);
 
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
-    private long getApplicationUptime() {
-        try {
-            // Get ManagementFactory to retrieve uptime from the JVM
-            return java.lang.management.ManagementFactory.getRuntimeMXBean().getUptime() / 1000;
-        } catch (Exception e) {
-            return 0;
-        }
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        boolean live = availability.getLivenessState() == LivenessState.CORRECT;
+        return live ? ResponseEntity.ok(UP) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(DOWN);
     }
 
-    private String getApplicationVersion() {
-        try {
-            String version = getClass().getPackage().getImplementationVersion();
-            return version != null ? version : "1.0.0";
-        } catch (Exception e) {
-            return "1.0.0";
-        }
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        boolean ready = availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC
+                && dependenciesOk(healthSnapshotService.getSnapshot());
+        return ready ? ResponseEntity.ok(UP) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(DOWN);
     }
 
-    private String checkDatabase() {
-        try {
-            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
-            return "connected";
-        } catch (Exception e) {
-            return "disconnected";
+    private boolean dependenciesOk(HealthSnapshot snapshot) {
+        if (healthSnapshotService.isStale(snapshot)) {
+            return false;
         }
+        boolean databaseOk = "connected".equals(snapshot.databaseStatus());
+        boolean redisOk = "connected".equals(snapshot.redisStatus()) || healthSnapshotService.isRedisOptional();
+        boolean workerOk = "running".equals(snapshot.workerStatus()) || healthSnapshotService.isWorkerOptional();
+        return databaseOk && redisOk && workerOk;
+    }
+
+    private static double toMillis(long micros) {
+        return micros < 0 ? -1 : micros / 1000.0;
     }
 
-    private String checkRedis() {
+    private long getApplicationStartTime() {
         try {
-            try (var connection = redisTemplate.getRequiredConnectionFactory().getConnection()) {
-                String pong = connection.ping();
-                return "PONG".equalsIgnoreCase(pong) ? "connected" : "disconnected";
-            }
+            // Get ManagementFactory to retrieve the JVM start time once
+            return java.lang.management.ManagementFactory.getRuntimeMXBean().getStartTime();
         } catch (Exception e) {
-            return redisOptional ? "skipped" : "disconnected";
+            return System.currentTimeMillis();
         }
     }
 
-    private String checkWorker() {
+    private String getApplicationVersion() {
         try {
-            return workerStatusService.isRunning() ? "running" : workerOptional ? "skipped" : "stopped";
+            String version = getClass().getPackage().getImplementationVersion();
+            return version != null ? version : "1.0.0";
         } catch (Exception e) {
-            return workerOptional ? "skipped" : "stopped";
+            return "1.0.0";
         }
     }
 }
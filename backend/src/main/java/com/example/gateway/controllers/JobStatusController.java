@@ -1,5 +1,7 @@
 package com.example.gateway.controllers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.jobs.JobServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,6 +12,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnRole(GatewayRole.API)
 public class JobStatusController {
     
     @Autowired
@@ -40,7 +43,7 @@ public class JobStatusController {
             response.put("failed", failedCount);
             response.put("total_jobs", totalJobs);
             response.put("success_rate", successRate);
-            response.put("worker_status", "running");
+            response.put("worker_status", jobService.isWorkerRunning() ? "running" : "stopped");
             
             return ResponseEntity.status(HttpStatus.OK).body(response);
             
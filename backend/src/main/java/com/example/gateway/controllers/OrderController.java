@@ -4,28 +4,35 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.dto.CreateOrderRequest;
 import com.example.gateway.dto.ErrorResponse;
 import com.example.gateway.models.Order;
 import com.example.gateway.services.OrderService;
+import com.example.gateway.services.PaymentStatusCache;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
 
 @RestController
+@ConditionalOnRole(GatewayRole.API)
 public class OrderController {
 
     private final OrderService orderService;
+    private final PaymentStatusCache paymentStatusCache;
 
     // Constructor Injection (Best Practice)
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, PaymentStatusCache paymentStatusCache) {
         this.orderService = orderService;
+        this.paymentStatusCache = paymentStatusCache;
     }
 
     @PostMapping("/api/v1/orders")
@@ -70,18 +77,7 @@ public class OrderController {
             Order savedOrder = orderService.getOrder(order_id);
             System.out.println(savedOrder);
             
-            // Build response to avoid circular references
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", savedOrder.getId());
-            response.put("merchant_id", savedOrder.getMerchant().getId());
-            response.put("amount", savedOrder.getAmount());
-            response.put("currency", savedOrder.getCurrency());
-            response.put("receipt", savedOrder.getReceipt());
-            response.put("notes", savedOrder.getNotes());
-            response.put("status", savedOrder.getStatus());
-            response.put("created_at", savedOrder.getCreatedAt());
-            
-            return ResponseEntity.status(HttpStatus.OK).body(response);
+            return ResponseEntity.status(HttpStatus.OK).body(toResponse(savedOrder));
         } catch (IllegalArgumentException e)  {
             String[] parts = e.getMessage().split("\\|");
             if (parts.length < 2) {
@@ -109,20 +105,11 @@ public class OrderController {
     @GetMapping("/api/v1/orders/{order_id}/public")
     public ResponseEntity<?> getOrderPublic(@PathVariable String order_id) {
         try {
-            Order savedOrder = orderService.getOrder(order_id);
+            // Served from the status cache; only a miss reads the database
+            String response = paymentStatusCache.getOrder(order_id,
+                    () -> toResponse(orderService.getOrder(order_id)));
             
-            // Build response to avoid circular references
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", savedOrder.getId());
-            response.put("merchant_id", savedOrder.getMerchant().getId());
-            response.put("amount", savedOrder.getAmount());
-            response.put("currency", savedOrder.getCurrency());
-            response.put("receipt", savedOrder.getReceipt());
-            response.put("notes", savedOrder.getNotes());
-            response.put("status", savedOrder.getStatus());
-            response.put("created_at", savedOrder.getCreatedAt());
-            
-            return ResponseEntity.status(HttpStatus.OK).body(response);
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(response);
         } catch (IllegalArgumentException e)  {
             String[] parts = e.getMessage().split("\\|");
             if (parts.length < 2) {
@@ -144,5 +131,18 @@ public class OrderController {
                     .body(new ErrorResponse(errorCode, errorDescription));
         }
     }
-    
+
+    // Build response to avoid circular references
+    private Map<String, Object> toResponse(Order order) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", order.getId());
+        response.put("merchant_id", order.getMerchant().getId());
+        response.put("amount", order.getAmount());
+        response.put("currency", order.getCurrency());
+        response.put("receipt", order.getReceipt());
+        response.put("notes", order.getNotes());
+        response.put("status", order.getStatus());
+        response.put("created_at", order.getCreatedAt());
+        return response;
+    }
 }
@@ -1,31 +1,33 @@
 package com.example.gateway.controllers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.dto.CreatePaymentRequest;
 import com.example.gateway.dto.ErrorResponse;
 import com.example.gateway.dto.PaymentResponse;
-import com.example.gateway.jobs.JobConstants;
-import com.example.gateway.jobs.ProcessPaymentJob;
 import com.example.gateway.models.Merchant;
 import com.example.gateway.models.Payment;
-import com.example.gateway.repositories.IdempotencyKeyRepository;
+import com.example.gateway.models.PaymentStatus;
 import com.example.gateway.repositories.PaymentRepository;
 import com.example.gateway.services.AuthenticationService;
-import com.example.gateway.services.IDGeneratorService;
-import com.example.gateway.jobs.JobServiceImpl;
+import com.example.gateway.services.PaymentCreationPipeline;
 import com.example.gateway.services.PaymentService;
-import com.example.gateway.models.IdempotencyKey;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.gateway.services.PaymentStatusCache;
+import com.example.gateway.services.ResponseRenderer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @RestController
+@ConditionalOnRole(GatewayRole.API)
 public class PaymentController {
 
     private final PaymentService paymentService;
@@ -34,18 +36,16 @@ public class PaymentController {
     private AuthenticationService authenticationService;
     
     @Autowired
-    private IDGeneratorService idGeneratorService;
-    
+    private PaymentRepository paymentRepository;
+
     @Autowired
-    private JobServiceImpl jobService;
-    
+    private PaymentStatusCache paymentStatusCache;
+
     @Autowired
-    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private ResponseRenderer responseRenderer;
     
     @Autowired
-    private PaymentRepository paymentRepository;
-    
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private PaymentCreationPipeline paymentCreationPipeline;
 
     public PaymentController(PaymentService paymentService) {
         this.paymentService = paymentService;
@@ -83,84 +83,28 @@ public class PaymentController {
      * Optional: Idempotency-Key header
      */
     @PostMapping("/api/v1/payments")
-    public ResponseEntity<?> createPayment(
+    public CompletableFuture<ResponseEntity<?>> createPayment(
             @RequestHeader("X-Api-Key") String apiKey,
             @RequestHeader("X-Api-Secret") String apiSecret,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody CreatePaymentRequest request) {
 
-        try {
-            // Authenticate merchant
-            Merchant merchant = authenticationService.authenticateMerchant(apiKey, apiSecret);
-            
-            // Check idempotency key if provided
-            if (idempotencyKey != null && !idempotencyKey.isEmpty()) {
-                Optional<IdempotencyKey> existingKey = idempotencyKeyRepository.findByKeyAndMerchantId(
-                        idempotencyKey, merchant.getId()
-                );
-                
-                if (existingKey.isPresent()) {
-                    IdempotencyKey keyRecord = existingKey.get();
-                    // Check if not expired
-                    if (keyRecord.getExpiresAt().isAfter(OffsetDateTime.now())) {
-                        // Return cached response
-                        JsonNode cachedResponse = keyRecord.getResponse();
-                        return ResponseEntity.status(HttpStatus.CREATED).body(objectMapper.treeToValue(cachedResponse, Object.class));
-                    } else {
-                        // Key expired, delete it
-                        idempotencyKeyRepository.delete(keyRecord);
-                    }
-                }
-            }
-            
-            // Validate request
-            if (request.getOrderId() == null || request.getOrderId().isEmpty()) {
-                ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST_ERROR", "order_id is required");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-            }
-
-            if (request.getMethod() == null || request.getMethod().isEmpty()) {
-                ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST_ERROR", "method is required");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-            }
-            
-            // Create payment with status='pending' (async processing)
-            String paymentId = idGeneratorService.generatePaymentId();
-            Payment payment = paymentService.createPaymentAsync(
-                    merchant,
-                    paymentId,
-                    request.getOrderId(),
-                    request.getMethod(),
-                    request.getVpa()
-            );
-            
-            // Enqueue ProcessPaymentJob
-            String jobId = "job_" + idGeneratorService.generateRandomString(12);
-            ProcessPaymentJob job = new ProcessPaymentJob(jobId, paymentId);
-            jobService.enqueueJob(JobConstants.PAYMENT_QUEUE, job, jobId);
-            
-            // Build response
-            PaymentResponse response = mapPaymentToResponse(payment);
-            
-            // Store in idempotency keys if key was provided
-            if (idempotencyKey != null && !idempotencyKey.isEmpty()) {
-                IdempotencyKey keyRecord = new IdempotencyKey();
-                keyRecord.setKey(idempotencyKey);
-                keyRecord.setMerchant(merchant);
-                keyRecord.setCreatedAt(OffsetDateTime.now());
-                keyRecord.setExpiresAt(OffsetDateTime.now().plusHours(24));
-                keyRecord.setResponse(objectMapper.valueToTree(response));
-                idempotencyKeyRepository.save(keyRecord);
-            }
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        // Lookups, a batched insert and the job enqueue run in PaymentCreationPipeline; the
+        // servlet thread is released until the response is ready
+        return paymentCreationPipeline.create(apiKey, apiSecret, idempotencyKey, request)
+                .<ResponseEntity<?>>thenApply(body -> ResponseEntity.status(HttpStatus.CREATED).body(body))
+                .exceptionally(this::handleCreateFailure);
+    }
 
-        } catch (IllegalArgumentException e) {
+    private ResponseEntity<?> handleCreateFailure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof IllegalArgumentException e) {
             return handleIllegalArgument(e);
-        } catch (Exception e) {
-            ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST_ERROR", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
+        ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST_ERROR", cause.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
     
     /**
@@ -194,14 +138,20 @@ public class PaymentController {
             }
             
             // Verify payment is in capturable state (status='success')
-            if (!payment.getStatus().equals("success")) {
+            if (payment.getStatus() != PaymentStatus.SUCCESS) {
                 ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST_ERROR", "Payment not in capturable state");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
             }
             
-            // Set captured flag
+            // Set captured flag, only if the payment is still successful when the UPDATE runs
+            OffsetDateTime now = OffsetDateTime.now();
+            if (paymentRepository.markCaptured(payment.getId(), payment.getCreatedAt(), PaymentStatus.SUCCESS, now) == 0) {
+                ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST_ERROR", "Payment not in capturable state");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            }
             payment.setCaptured(true);
-            paymentRepository.save(payment);
+            payment.setUpdatedAt(now);
+            paymentStatusCache.putPayment(payment);
             
             // Return updated payment
             PaymentResponse response = mapPaymentToResponse(payment);
@@ -229,8 +179,8 @@ public class PaymentController {
             // Note: In a real system, you'd verify the merchant owns this payment
             // For now, we just verify merchant exists and return the payment
             Payment payment = paymentService.getPayment(paymentId);
-            PaymentResponse response = mapPaymentToResponse(payment);
-            return ResponseEntity.status(HttpStatus.OK).body(response);
+            byte[] response = responseRenderer.renderPayment(payment);
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(response);
 
         } catch (IllegalArgumentException e) {
             return handleIllegalArgument(e);
@@ -317,9 +267,10 @@ public class PaymentController {
             @PathVariable("payment_id") String paymentId) {
 
         try {
-            Payment payment = paymentService.getPaymentPublic(paymentId);
-            PaymentResponse response = mapPaymentToResponse(payment);
-            return ResponseEntity.status(HttpStatus.OK).body(response);
+            // Served from the status cache; only a miss reads the database
+            String response = paymentStatusCache.getPayment(paymentId,
+                    () -> mapPaymentToResponse(paymentService.getPaymentPublic(paymentId)));
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(response);
 
         } catch (IllegalArgumentException e) {
             return handleIllegalArgument(e);
@@ -331,30 +282,10 @@ public class PaymentController {
 
     /**
      * Helper method to map Payment entity to PaymentResponse DTO
+     * Public so the benchmarks module can measure it directly
      */
-    private PaymentResponse mapPaymentToResponse(Payment payment) {
-        PaymentResponse response = new PaymentResponse();
-        response.setId(payment.getId());
-        response.setOrderId(payment.getOrder().getId());
-        response.setMerchantId(payment.getMerchant().getId().toString());
-        response.setAmount(payment.getAmount());
-        response.setCurrency(payment.getCurrency());
-        response.setMethod(payment.getMethod().name().toLowerCase());
-        response.setStatus(payment.getStatus());
-        response.setVpa(payment.getVpa());
-        
-        if (payment.getCardNetwork() != null) {
-            response.setCardNetwork(payment.getCardNetwork().name().toLowerCase());
-        }
-        
-        response.setCardLast4(payment.getCardLast4());
-        response.setErrorCode(payment.getErrorCode());
-        response.setErrorDescription(payment.getErrorDescription());
-        response.setCaptured(payment.getCaptured());
-        response.setCreatedAt(payment.getCreatedAt());
-        response.setUpdatedAt(payment.getUpdatedAt());
-        
-        return response;
+    public PaymentResponse mapPaymentToResponse(Payment payment) {
+        return PaymentResponse.from(payment);
     }
 
     /**
@@ -1,28 +1,35 @@
 package com.example.gateway.controllers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.dto.ErrorResponse;
 import com.example.gateway.dto.RefundResponse;
 import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobPriority;
 import com.example.gateway.jobs.ProcessRefundJob;
 import com.example.gateway.models.Merchant;
 import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
 import com.example.gateway.models.Refund;
 import com.example.gateway.repositories.PaymentRepository;
 import com.example.gateway.repositories.RefundRepository;
 import com.example.gateway.services.AuthenticationService;
 import com.example.gateway.services.IDGeneratorService;
+import com.example.gateway.services.ReplicaReads;
+import com.example.gateway.services.ResponseRenderer;
 import com.example.gateway.jobs.JobServiceImpl;
 import com.example.gateway.jobs.JobConstants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.OffsetDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnRole(GatewayRole.API)
 public class RefundController {
     
     @Autowired
@@ -40,6 +47,12 @@ public class RefundController {
     @Autowired
     private RefundRepository refundRepository;
     
+    @Autowired
+    private ReplicaReads replicaReads;
+    
+    @Autowired
+    private ResponseRenderer responseRenderer;
+    
     /**
      * POST /api/v1/payments/{payment_id}/refunds - Create refund (Authenticated)
      */
@@ -70,7 +83,7 @@ public class RefundController {
             }
             
             // Verify payment is refundable (status must be 'success')
-            if (!payment.getStatus().equals("success")) {
+            if (payment.getStatus() != PaymentStatus.SUCCESS) {
                 ErrorResponse errorResponse = new ErrorResponse("BAD_REQUEST_ERROR", "Refund amount exceeds available amount");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
             }
@@ -85,13 +98,7 @@ public class RefundController {
             String reason = request.containsKey("reason") ? request.get("reason").toString() : null;
             
             // Calculate total already refunded
-            List<Refund> existingRefunds = refundRepository.findByPaymentId(paymentId);
-            long totalRefunded = 0;
-            for (Refund r : existingRefunds) {
-                if (!"failed".equals(r.getStatus())) {
-                    totalRefunded += r.getAmount();
-                }
-            }
+            long totalRefunded = refundRepository.sumActiveRefundAmount(paymentId);
             
             // Validate refund amount
             if (refundAmount + totalRefunded > payment.getAmount()) {
@@ -117,7 +124,8 @@ public class RefundController {
             // Enqueue ProcessRefundJob
             String jobId = "job_" + idGeneratorService.generateRandomString(12);
             ProcessRefundJob job = new ProcessRefundJob(jobId, refundId);
-            jobService.enqueueJob(JobConstants.REFUND_QUEUE, job, jobId);
+            // Sharded by payment so refunds of one payment are processed in order
+            jobService.enqueueJob(JobConstants.REFUND_QUEUE, JobPriority.HIGH, payment.getId(), job, jobId);
             
             // Build response
             RefundResponse response = mapRefundToResponse(refund);
@@ -145,7 +153,7 @@ public class RefundController {
             Merchant merchant = authenticationService.authenticateMerchant(apiKey, apiSecret);
             
             // Fetch refund
-            Optional<Refund> refundOpt = refundRepository.findById(refundId);
+            Optional<Refund> refundOpt = replicaReads.findById(() -> refundRepository.findById(refundId));
             if (!refundOpt.isPresent()) {
                 ErrorResponse errorResponse = new ErrorResponse("NOT_FOUND_ERROR", "Refund not found");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
@@ -160,8 +168,8 @@ public class RefundController {
             }
             
             // Build response
-            RefundResponse response = mapRefundToResponse(refund);
-            return ResponseEntity.status(HttpStatus.OK).body(response);
+            byte[] response = responseRenderer.renderRefund(refund);
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(response);
             
         } catch (IllegalArgumentException e) {
             return handleIllegalArgument(e);
@@ -172,15 +180,7 @@ public class RefundController {
     }
     
     private RefundResponse mapRefundToResponse(Refund refund) {
-        RefundResponse response = new RefundResponse();
-        response.setId(refund.getId());
-        response.setPaymentId(refund.getPayment().getId());
-        response.setAmount(refund.getAmount());
-        response.setReason(refund.getReason());
-        response.setStatus(refund.getStatus());
-        response.setCreatedAt(refund.getCreatedAt());
-        response.setProcessedAt(refund.getProcessedAt());
-        return response;
+        return RefundResponse.from(refund);
     }
     
     private ResponseEntity<?> handleIllegalArgument(IllegalArgumentException e) {
@@ -1,5 +1,7 @@
 package com.example.gateway.controllers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.repositories.MerchantRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +13,7 @@ import java.util.Map;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnRole(GatewayRole.API)
 public class TestController {
 
     private final MerchantRepository merchantRepository;
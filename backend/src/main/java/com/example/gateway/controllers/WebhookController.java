@@ -1,7 +1,11 @@
 package com.example.gateway.controllers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.dto.ErrorResponse;
+import com.example.gateway.dto.WebhookLogSummary;
 import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobPriority;
 import com.example.gateway.jobs.DeliverWebhookJob;
 import com.example.gateway.jobs.JobServiceImpl;
 import com.example.gateway.models.Merchant;
@@ -9,13 +13,10 @@ import com.example.gateway.models.WebhookLog;
 import com.example.gateway.repositories.WebhookLogRepository;
 import com.example.gateway.services.AuthenticationService;
 import com.example.gateway.services.IDGeneratorService;
+import com.example.gateway.services.ReplicaReads;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +28,7 @@ import java.util.Map;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnRole(GatewayRole.API)
 public class WebhookController {
     
     @Autowired
@@ -41,7 +43,8 @@ public class WebhookController {
     @Autowired
     private WebhookLogRepository webhookLogRepository;
     
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private ReplicaReads replicaReads;
     
     /**
      * GET /api/v1/webhooks - List webhook logs with pagination (Authenticated)
@@ -57,18 +60,17 @@ public class WebhookController {
             // Authenticate merchant
             Merchant merchant = authenticationService.authenticateMerchant(apiKey, apiSecret);
             
-            // Fetch paginated webhook logs
-            Pageable pageable = PageRequest.of(offset / limit, limit);
-            List<WebhookLog> logs = webhookLogRepository.findByMerchantId(merchant.getId());
-            
-            // Apply pagination manually (simple approach)
-            int start = offset;
-            int end = Math.min(start + limit, logs.size());
-            List<WebhookLog> paginatedLogs = logs.subList(start, end);
+            // Fetch one page as a projection plus the total, two statements regardless of page size
+            // Both on one replica connection; the page is collected by the query that returns the total
+            List<WebhookLogSummary> page = new ArrayList<>();
+            long total = replicaReads.read(() -> {
+                page.addAll(webhookLogRepository.findSummariesByMerchantId(merchant.getId(), limit, offset));
+                return webhookLogRepository.countByMerchantId(merchant.getId());
+            });
             
             // Build response
             List<Map<String, Object>> data = new ArrayList<>();
-            for (WebhookLog log : paginatedLogs) {
+            for (WebhookLogSummary log : page) {
                 Map<String, Object> item = new HashMap<>();
                 item.put("id", log.getId());
                 item.put("event", log.getEvent());
@@ -82,7 +84,7 @@ public class WebhookController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("data", data);
-            response.put("total", logs.size());
+            response.put("total", total);
             response.put("limit", limit);
             response.put("offset", offset);
             
@@ -133,7 +135,7 @@ public class WebhookController {
             // Enqueue DeliverWebhookJob
             String jobId = idGeneratorService.generateWebhookJobId();
             DeliverWebhookJob job = new DeliverWebhookJob(jobId, merchant.getId(), webhook.getEvent(), webhook.getPayload());
-            jobService.enqueueJob(JobConstants.WEBHOOK_QUEUE, job, jobId);
+            jobService.enqueueJob(JobConstants.WEBHOOK_QUEUE, JobPriority.LOW, job, jobId);
             
             // Build response
             Map<String, Object> response = new HashMap<>();
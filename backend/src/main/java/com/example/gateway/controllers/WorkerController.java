@@ -0,0 +1,43 @@
+package com.example.gateway.controllers;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.workers.WorkerHeartbeatService;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnRole(GatewayRole.API)
+public class WorkerController {
+
+    private final WorkerHeartbeatService heartbeatService;
+
+    public WorkerController(WorkerHeartbeatService heartbeatService) {
+        this.heartbeatService = heartbeatService;
+    }
+
+    /**
+     * GET /api/v1/workers - Worker nodes with a live heartbeat (NO AUTHENTICATION REQUIRED)
+     * Each node reports its queues, in-flight jobs, processed total and recent throughput
+     */
+    @GetMapping("/api/v1/workers")
+    public ResponseEntity<?> getWorkers() {
+        try {
+            List<Map<String, Object>> nodes = heartbeatService.listNodes();
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("count", nodes.size());
+            response.put("workers", nodes);
+            return ResponseEntity.status(HttpStatus.OK).body(response);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new LinkedHashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.gateway.dto;
 
+import com.example.gateway.models.Payment;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.OffsetDateTime;
@@ -74,6 +75,35 @@ public class PaymentResponse {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Response view of a payment. Reads only the ids of its order and merchant, so lazy
+     * associations are never loaded.
+     */
+    public static PaymentResponse from(Payment payment) {
+        PaymentResponse response = new PaymentResponse();
+        response.setId(payment.getId());
+        response.setOrderId(payment.getOrder().getId());
+        response.setMerchantId(payment.getMerchant().getId().toString());
+        response.setAmount(payment.getAmount());
+        response.setCurrency(payment.getCurrency());
+        response.setMethod(payment.getMethod().getToken());
+        response.setStatus(payment.getStatus().getToken());
+        response.setVpa(payment.getVpa());
+
+        if (payment.getCardNetwork() != null) {
+            response.setCardNetwork(payment.getCardNetwork().getToken());
+        }
+
+        response.setCardLast4(payment.getCardLast4());
+        response.setErrorCode(payment.getErrorCode());
+        response.setErrorDescription(payment.getErrorDescription());
+        response.setCaptured(payment.getCaptured());
+        response.setCreatedAt(payment.getCreatedAt());
+        response.setUpdatedAt(payment.getUpdatedAt());
+
+        return response;
+    }
+
     public String getId() {
         return id;
     }
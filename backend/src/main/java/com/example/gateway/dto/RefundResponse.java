@@ -1,5 +1,6 @@
 package com.example.gateway.dto;
 
+import com.example.gateway.models.Refund;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.OffsetDateTime;
@@ -42,6 +43,21 @@ public class RefundResponse {
         this.processedAt = processedAt;
     }
 
+    /**
+     * Response view of a refund. Reads only the id of its payment.
+     */
+    public static RefundResponse from(Refund refund) {
+        RefundResponse response = new RefundResponse();
+        response.setId(refund.getId());
+        response.setPaymentId(refund.getPayment().getId());
+        response.setAmount(refund.getAmount());
+        response.setReason(refund.getReason());
+        response.setStatus(refund.getStatus());
+        response.setCreatedAt(refund.getCreatedAt());
+        response.setProcessedAt(refund.getProcessedAt());
+        return response;
+    }
+
     public String getId() {
         return id;
     }
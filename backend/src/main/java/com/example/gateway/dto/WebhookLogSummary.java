@@ -0,0 +1,56 @@
+package com.example.gateway.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Columns listed by GET /api/v1/webhooks, selected directly so the payload and merchant are never loaded.
+ */
+public class WebhookLogSummary {
+
+    private final String id;
+    private final String event;
+    private final String status;
+    private final Integer attempts;
+    private final OffsetDateTime createdAt;
+    private final OffsetDateTime lastAttemptAt;
+    private final Integer responseCode;
+
+    public WebhookLogSummary(String id, String event, String status, Integer attempts,
+            OffsetDateTime createdAt, OffsetDateTime lastAttemptAt, Integer responseCode) {
+        this.id = id;
+        this.event = event;
+        this.status = status;
+        this.attempts = attempts;
+        this.createdAt = createdAt;
+        this.lastAttemptAt = lastAttemptAt;
+        this.responseCode = responseCode;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getLastAttemptAt() {
+        return lastAttemptAt;
+    }
+
+    public Integer getResponseCode() {
+        return responseCode;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.gateway.jobs;
+
+import com.example.gateway.config.JsonCodecs;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binary encoding of queued jobs, stored under job:&lt;jobId&gt;.
+ *
+ * Layout (format 1): version byte, type tag byte, then the job's fields in a fixed order. Strings
+ * are a varint length followed by UTF-8; createdAt is a varint of epoch millis + 1 (0 = absent);
+ * the merchant id is a presence byte (0 = absent) followed, when present, by two fixed 8-byte longs;
+ * a webhook payload is a varint length followed by the
+ * tree in Smile (0 = absent). status is not stored: a queued job is always pending, and its
+ * progress is tracked under job:status.
+ *
+ * Jobs written as JSON by earlier versions start with '{' and are still decoded, so a deploy
+ * does not strand jobs already in the queues. Workers must be upgraded before the API,
+ * because older workers cannot read this format.
+ */
+@Component
+public class JobCodec {
+
+    static final byte FORMAT_V1 = 1;
+
+    static final byte TYPE_PROCESS_PAYMENT = 1;
+    static final byte TYPE_PROCESS_REFUND = 2;
+    static final byte TYPE_DELIVER_WEBHOOK = 3;
+
+    private final JsonCodecs jsonCodecs;
+    private final ObjectMapper smileMapper;
+
+    public JobCodec(JsonCodecs jsonCodecs) {
+        this.jsonCodecs = jsonCodecs;
+        this.smileMapper = jsonCodecs.mapper().copyWith(new SmileFactory());
+    }
+
+    public byte[] encode(Object job) {
+        Output out = new Output();
+        out.writeByte(FORMAT_V1);
+        if (job instanceof ProcessPaymentJob payment) {
+            out.writeByte(TYPE_PROCESS_PAYMENT);
+            out.writeString(payment.getJobId());
+            out.writeString(payment.getPaymentId());
+            out.writeTimestamp(payment.getCreatedAt());
+        } else if (job instanceof ProcessRefundJob refund) {
+            out.writeByte(TYPE_PROCESS_REFUND);
+            out.writeString(refund.getJobId());
+            out.writeString(refund.getRefundId());
+            out.writeTimestamp(refund.getCreatedAt());
+        } else if (job instanceof DeliverWebhookJob webhook) {
+            out.writeByte(TYPE_DELIVER_WEBHOOK);
+            out.writeString(webhook.getJobId());
+            out.writeUuid(webhook.getMerchantId());
+            out.writeString(webhook.getEvent());
+            out.writeTimestamp(webhook.getCreatedAt());
+            out.writeBytes(webhook.getPayload() != null ? toSmile(webhook.getPayload()) : null);
+        } else {
+            throw new IllegalArgumentException("Unsupported job type: " + job.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    public <T> T decode(byte[] data, Class<T> type) {
+        if (data.length > 0 && data[0] == '{') {
+            return decodeJson(data, type);
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            byte version = in.get();
+            if (version != FORMAT_V1) {
+                throw new IllegalArgumentException("Unsupported job format version: " + version);
+            }
+            byte tag = in.get();
+            Object job = switch (tag) {
+                case TYPE_PROCESS_PAYMENT -> {
+                    ProcessPaymentJob payment = new ProcessPaymentJob(readString(in), readString(in));
+                    payment.setCreatedAt(readTimestamp(in));
+                    yield payment;
+                }
+                case TYPE_PROCESS_REFUND -> {
+                    ProcessRefundJob refund = new ProcessRefundJob(readString(in), readString(in));
+                    refund.setCreatedAt(readTimestamp(in));
+                    yield refund;
+                }
+                case TYPE_DELIVER_WEBHOOK -> {
+                    String jobId = readString(in);
+                    UUID merchantId = readUuid(in);
+                    String event = readString(in);
+                    OffsetDateTime createdAt = readTimestamp(in);
+                    byte[] payload = readBytes(in);
+                    DeliverWebhookJob webhook = new DeliverWebhookJob(jobId, merchantId, event,
+                            payload != null ? fromSmile(payload) : null);
+                    webhook.setCreatedAt(createdAt);
+                    yield webhook;
+                }
+                default -> throw new IllegalArgumentException("Unknown job type tag: " + tag);
+            };
+            if (!type.isInstance(job)) {
+                throw new IllegalArgumentException("Expected " + type.getSimpleName() + " but found "
+                        + job.getClass().getSimpleName());
+            }
+            return type.cast(job);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated job data", e);
+        }
+    }
+
+    private <T> T decodeJson(byte[] data, Class<T> type) {
+        try {
+            return jsonCodecs.readerFor(type).readValue(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read legacy JSON job", e);
+        }
+    }
+
+    private byte[] toSmile(JsonNode payload) {
+        try {
+            return smileMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode webhook payload", e);
+        }
+    }
+
+    private JsonNode fromSmile(byte[] payload) {
+        try {
+            return smileMapper.readTree(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode webhook payload", e);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readLength(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        byte present = in.get();
+        if (present == 0) {
+            return null;
+        }
+        if (present != 1) {
+            throw new IllegalArgumentException("Malformed UUID presence flag in job data: " + present);
+        }
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static OffsetDateTime readTimestamp(ByteBuffer in) {
+        long value = readVarLong(in);
+        return value == 0 ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(value - 1), ZoneOffset.UTC);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        int length = readLength(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * A length prefix, checked against what is left so that a cut-off value fails as truncated.
+     */
+    private static int readLength(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return (int) length;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in job data");
+    }
+
+    /**
+     * Growable buffer; jobs are small, so it starts at 64 bytes.
+     */
+    private static final class Output {
+        private byte[] buffer = new byte[64];
+        private int position;
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeUuid(UUID value) {
+            if (value == null) {
+                writeByte(0);
+            } else {
+                writeByte(1);
+                writeLong(value.getMostSignificantBits());
+                writeLong(value.getLeastSignificantBits());
+            }
+        }
+
+        void writeString(String value) {
+            writePrefixed(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeTimestamp(OffsetDateTime value) {
+            writeVarLong(value == null ? 0 : value.toInstant().toEpochMilli() + 1);
+        }
+
+        void writeBytes(byte[] value) {
+            if (value == null) {
+                writeVarLong(0);
+            } else {
+                writePrefixed(value);
+            }
+        }
+
+        private void writePrefixed(byte[] value) {
+            writeVarLong(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+}
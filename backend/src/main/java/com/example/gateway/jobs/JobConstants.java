@@ -1,11 +1,32 @@
 package com.example.gateway.jobs;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
 public class JobConstants {
     
     // Queue names
     public static final String PAYMENT_QUEUE = "payment-jobs";
     public static final String WEBHOOK_QUEUE = "webhook-jobs";
     public static final String REFUND_QUEUE = "refund-jobs";
+    public static final List<String> QUEUES = List.of(PAYMENT_QUEUE, WEBHOOK_QUEUE, REFUND_QUEUE);
+    // Every priority lane of every queue (see JobPriority)
+    public static final List<String> LANES = QUEUES.stream()
+            .flatMap(queue -> Arrays.stream(JobPriority.values()).map(priority -> priority.lane(queue)))
+            .toList();
+    
+    // Job payloads are stored under this prefix + job id; queues hold job ids scored by enqueue time
+    public static final String JOB_DATA_PREFIX = "job:";
+    
+    // Failed attempts of a job, under this prefix + job id. A job that fails MAX_JOB_ATTEMPTS times
+    // moves from its queue to the queue's dead-letter set, queue name + DEAD_LETTER_SUFFIX
+    public static final String JOB_ATTEMPTS_PREFIX = "job:attempts:";
+    public static final String DEAD_LETTER_SUFFIX = ":dead";
+    public static final int MAX_JOB_ATTEMPTS = 5;
+    
+    // Delay before a failed job is taken again, doubled with every further failure
+    public static final long JOB_RETRY_BASE_DELAY_MS = 1000;
     
     // Job types
     public static final String PROCESS_PAYMENT_JOB = "process_payment";
@@ -26,4 +47,10 @@ public class JobConstants {
     
     // Max retry attempts
     public static final int MAX_WEBHOOK_ATTEMPTS = 5;
+    
+    // How far back from a job's creation its row can be, bounding lookups to recent partitions.
+    // A payment row is written just before its job; a webhook log can be retried for under
+    // 3 hours (the delays above), and a day leaves room for an outage.
+    public static final Duration PAYMENT_LOOKBACK = Duration.ofHours(1);
+    public static final Duration WEBHOOK_LOG_LOOKBACK = Duration.ofDays(1);
 }
@@ -0,0 +1,24 @@
+package com.example.gateway.jobs;
+
+/**
+ * Priority lane of a job queue. HIGH is named after the queue itself (payment-jobs), so jobs queued
+ * before lanes existed are still consumed first; LOW is a sibling (payment-jobs:low). JobShards
+ * splits each lane into shards.
+ *
+ * HIGH: customer-facing work (live payments and refunds, first webhook attempts).
+ * LOW: work nobody is waiting on (webhook retries, manual redeliveries).
+ */
+public enum JobPriority {
+    HIGH(""),
+    LOW(":low");
+
+    private final String suffix;
+
+    JobPriority(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String lane(String queueName) {
+        return queueName + suffix;
+    }
+}
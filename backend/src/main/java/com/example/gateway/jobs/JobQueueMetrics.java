@@ -0,0 +1,88 @@
+package com.example.gateway.jobs;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queue depth and age of the oldest waiting job for every JobConstants queue lane, summed over
+ * its shards. Read from Redis when scraped; a failed read reports NaN instead of failing the scrape.
+ */
+@Component
+public class JobQueueMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobQueueMetrics.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JobShards jobShards;
+
+    public JobQueueMetrics(MeterRegistry meterRegistry, StringRedisTemplate redisTemplate, JobShards jobShards) {
+        this.redisTemplate = redisTemplate;
+        this.jobShards = jobShards;
+        for (String queue : JobConstants.LANES) {
+            Gauge.builder("gateway.jobs.queue.depth", () -> depth(queue))
+                    .description("Jobs waiting in the queue")
+                    .tag("queue", queue)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.jobs.queue.oldest.age", () -> oldestAgeSeconds(queue))
+                    .description("Age of the oldest waiting job")
+                    .tag("queue", queue)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public double depth(String queue) {
+        try {
+            List<Object> sizes = pipelined(queue, (connection, key) -> connection.zSetCommands().zCard(key));
+            double depth = 0;
+            for (Object size : sizes) {
+                depth += size instanceof Number count ? count.doubleValue() : 0;
+            }
+            return depth;
+        } catch (Exception e) {
+            logger.debug("Could not read depth of {}", queue, e);
+            return Double.NaN;
+        }
+    }
+
+    public double oldestAgeSeconds(String queue) {
+        try {
+            List<Object> heads = pipelined(queue, (connection, key) -> connection.zSetCommands().zRangeWithScores(key, 0, 0));
+            double enqueuedAt = Double.MAX_VALUE;
+            for (Object head : heads) {
+                if (head instanceof Set<?> oldest && !oldest.isEmpty()
+                        && oldest.iterator().next() instanceof TypedTuple<?> job && job.getScore() != null) {
+                    enqueuedAt = Math.min(enqueuedAt, job.getScore());
+                }
+            }
+            return enqueuedAt != Double.MAX_VALUE ? Math.max(0, System.currentTimeMillis() - enqueuedAt) / 1000.0 : 0;
+        } catch (Exception e) {
+            logger.debug("Could not read oldest job of {}", queue, e);
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Runs the command against every shard of the lane (see JobShards) in one round trip.
+     */
+    private List<Object> pipelined(String queue, BiConsumer<RedisConnection, byte[]> command) {
+        List<String> keys = jobShards.keys(queue);
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                command.accept(connection, key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+}
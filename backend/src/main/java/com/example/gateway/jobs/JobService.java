@@ -1,6 +1,7 @@
 package com.example.gateway.jobs;
 
 import java.io.Serializable;
+import java.util.Map;
 
 public interface JobService {
     
@@ -13,6 +14,35 @@ public interface JobService {
      */
     String enqueueJob(String queueName, Serializable jobData, String jobId);
     
+    /**
+     * Enqueue a job in one priority lane of the specified queue
+     * @param queueName Name of the queue
+     * @param priority Lane to enqueue in
+     * @param jobData Job data to be queued
+     * @param jobId Unique job identifier
+     * @return Job ID for tracking
+     */
+    String enqueueJob(String queueName, JobPriority priority, Serializable jobData, String jobId);
+    
+    /**
+     * Enqueue a job in one priority lane of the specified queue, in the shard of the given key
+     * @param queueName Name of the queue
+     * @param priority Lane to enqueue in
+     * @param shardKey Entity the job must stay ordered with (see JobShards)
+     * @param jobData Job data to be queued
+     * @param jobId Unique job identifier
+     * @return Job ID for tracking
+     */
+    String enqueueJob(String queueName, JobPriority priority, String shardKey, Serializable jobData, String jobId);
+    
+    /**
+     * Enqueue several jobs in one priority lane of the specified queue, each in the shard of its own entity
+     * @param queueName Name of the queue
+     * @param priority Lane to enqueue in
+     * @param jobsById Job data to be queued, by unique job identifier
+     */
+    void enqueueJobs(String queueName, JobPriority priority, Map<String, ? extends Serializable> jobsById);
+    
     /**
      * Get job status by job ID
      * @param jobId Job identifier
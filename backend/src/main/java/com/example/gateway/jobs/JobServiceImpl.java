@@ -1,50 +1,124 @@
 package com.example.gateway.jobs;
 
-import org.redisson.api.RedissonClient;
-import org.redisson.api.RQueue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Service
 public class JobServiceImpl implements JobService {
 
     @Autowired
-    private RedissonClient redissonClient;
+    private RedisTemplate<String, Object> redisTemplate;
 
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private RedisTemplate<String, byte[]> jobRedisTemplate;
+
+    @Autowired
+    private JobCodec jobCodec;
+
+    @Autowired
+    private JobShards jobShards;
 
     private static final String JOB_STATUS_PREFIX = "job:status:";
     private static final String JOB_COUNTER_PREFIX = "job:counter:";
     private static final String WORKER_HEARTBEAT_KEY = "worker:heartbeat";
     private static final long WORKER_HEARTBEAT_TIMEOUT = 30; // seconds
-
+    private static final byte[] ENQUEUE_SCRIPT = loadScript("jobs/enqueue-job.lua");
+
+    /**
+     * Jobs are stored in JobCodec's binary format under job:{jobId} and the job id is added to the
+     * sorted set of its lane and shard, scored by enqueue time, so JobProcessor consumes each shard FIFO.
+     * These writes go out in one pipeline, data first, so a consumer never sees an id without its job
+     * and enqueueing costs a single round trip; enqueueJobs puts a whole batch in that pipeline. The queue entry, the job status and the pending counter
+     * are written by one script (jobs/enqueue-job.lua): a job that is already queued keeps its place
+     * (ZADD NX) and is only counted as pending once, since RetryScheduler enqueues a webhook retry
+     * again every scan until the worker has taken it.
+     */
     @Override
     public String enqueueJob(String queueName, Serializable jobData, String jobId) {
+        return enqueueJob(queueName, JobPriority.HIGH, jobData, jobId);
+    }
+
+    @Override
+    public String enqueueJob(String queueName, JobPriority priority, Serializable jobData, String jobId) {
+        return enqueueJob(queueName, priority, JobShards.shardKeyOf(jobData, jobId), jobData, jobId);
+    }
+
+    @Override
+    public String enqueueJob(String queueName, JobPriority priority, String shardKey, Serializable jobData, String jobId) {
         try {
-            RQueue<Object> queue = redissonClient.getQueue(queueName);
-            queue.offer(jobData);
-            
-            // Store job status
-            redisTemplate.opsForValue().set(
-                    JOB_STATUS_PREFIX + jobId,
-                    JobConstants.JOB_STATUS_PENDING,
-                    24,
-                    TimeUnit.HOURS
-            );
-            
-            // Increment pending counter
-            incrementCounter(JOB_COUNTER_PREFIX + JobConstants.JOB_STATUS_PENDING);
-            
+            QueuedJob job = prepare(queueName, priority, shardKey, jobData, jobId);
+            write(List.of(job));
             return jobId;
         } catch (Exception e) {
             throw new RuntimeException("Failed to enqueue job: " + jobId, e);
         }
     }
 
+    /**
+     * Like enqueueJob for each entry, with all of their writes in a single pipeline.
+     */
+    @Override
+    public void enqueueJobs(String queueName, JobPriority priority, Map<String, ? extends Serializable> jobsById) {
+        if (jobsById.isEmpty()) {
+            return;
+        }
+        try {
+            List<QueuedJob> jobs = new ArrayList<>(jobsById.size());
+            for (Map.Entry<String, ? extends Serializable> entry : jobsById.entrySet()) {
+                String jobId = entry.getKey();
+                Serializable jobData = entry.getValue();
+                jobs.add(prepare(queueName, priority, JobShards.shardKeyOf(jobData, jobId), jobData, jobId));
+            }
+            write(jobs);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to enqueue jobs: " + jobsById.keySet(), e);
+        }
+    }
+
+    private record QueuedJob(byte[] dataKey, byte[] payload, byte[] queueKey, byte[] member, byte[] statusKey) {
+    }
+
+    private QueuedJob prepare(String queueName, JobPriority priority, String shardKey, Serializable jobData,
+            String jobId) {
+        String lane = jobShards.laneKey(queueName, priority, jobShards.shardOf(shardKey));
+        return new QueuedJob(
+                (JobConstants.JOB_DATA_PREFIX + jobId).getBytes(StandardCharsets.UTF_8),
+                jobCodec.encode(jobData),
+                lane.getBytes(StandardCharsets.UTF_8),
+                jobId.getBytes(StandardCharsets.UTF_8),
+                (JOB_STATUS_PREFIX + jobId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void write(List<QueuedJob> jobs) {
+        byte[] rawScore = Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8);
+        byte[] status = rawValue(JobConstants.JOB_STATUS_PENDING);
+        byte[] counterKey = (JOB_COUNTER_PREFIX + JobConstants.JOB_STATUS_PENDING).getBytes(StandardCharsets.UTF_8);
+        byte[] statusTtl = Long.toString(TimeUnit.HOURS.toSeconds(24)).getBytes(StandardCharsets.UTF_8);
+        jobRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (QueuedJob job : jobs) {
+                connection.stringCommands().set(job.dataKey(), job.payload(), Expiration.from(24, TimeUnit.HOURS), SetOption.upsert());
+                connection.scriptingCommands().eval(ENQUEUE_SCRIPT, ReturnType.INTEGER, 3,
+                        job.queueKey(), job.statusKey(), counterKey, rawScore, job.member(), status, statusTtl);
+            }
+            return null;
+        });
+    }
+
     @Override
     public String getJobStatus(String jobId) {
         Object status = redisTemplate.opsForValue().get(JOB_STATUS_PREFIX + jobId);
@@ -73,8 +147,7 @@ public class JobServiceImpl implements JobService {
 
     @Override
     public boolean isWorkerRunning() {
-        Object heartbeat = redisTemplate.opsForValue().get(WORKER_HEARTBEAT_KEY);
-        return heartbeat != null;
+        return Boolean.TRUE.equals(redisTemplate.hasKey(WORKER_HEARTBEAT_KEY));
     }
 
     public void updateJobStatus(String jobId, String newStatus) {
@@ -104,6 +177,22 @@ public class JobServiceImpl implements JobService {
         );
     }
 
+    private static byte[] loadScript(String path) {
+        try {
+            return new ClassPathResource(path).getContentAsByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load " + path, e);
+        }
+    }
+
+    /**
+     * A value as redisTemplate would write it, so getJobStatus reads pipelined writes back alike.
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] rawValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
     private void incrementCounter(String counterKey) {
         redisTemplate.opsForValue().increment(counterKey);
     }
@@ -0,0 +1,102 @@
+package com.example.gateway.jobs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits every queue lane into jobs.shards sorted sets, payment-jobs:0 .. payment-jobs:{n-1}
+ * (payment-jobs:low:0 .. for the low lane). A job's shard comes from the entity it acts on, so all
+ * jobs for one payment (or one merchant's webhooks) land in the same shard and, since a shard is
+ * consumed by one node at a time (see ShardLeaseManager), run in the order they were queued.
+ *
+ * The unsharded lane keys from before sharding are still drained, by whichever node holds shard 0.
+ * Changing jobs.shards moves entities between shards; only do it with the queues drained.
+ */
+@Component
+public class JobShards {
+
+    /**
+     * One shard of a lane: the sorted set key, the logical lane it belongs to (payment-jobs:low,
+     * used to tag metrics) and the shard number.
+     */
+    public record Lane(String key, String name, int shard) {
+    }
+
+    private final int count;
+
+    public JobShards(@Value("${jobs.shards:16}") int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("jobs.shards must be at least 1");
+        }
+        this.count = count;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * CRC32 rather than String.hashCode so the mapping is easy to reproduce outside the JVM.
+     */
+    public int shardOf(String shardKey) {
+        CRC32 crc = new CRC32();
+        crc.update(shardKey.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % count);
+    }
+
+    public String laneKey(String queueName, JobPriority priority, int shard) {
+        return priority.lane(queueName) + ":" + shard;
+    }
+
+    /**
+     * The lanes of one priority owned through the given shards, including the legacy unsharded
+     * lane when shard 0 is among them.
+     */
+    public List<Lane> lanes(String queueName, JobPriority priority, Collection<Integer> shards) {
+        String name = priority.lane(queueName);
+        List<Lane> lanes = new ArrayList<>(shards.size() + 1);
+        for (int shard : shards) {
+            lanes.add(new Lane(laneKey(queueName, priority, shard), name, shard));
+            if (shard == 0) {
+                lanes.add(new Lane(name, name, 0));
+            }
+        }
+        return lanes;
+    }
+
+    /**
+     * Every key backing one logical lane (see JobConstants.LANES), for metrics.
+     */
+    public List<String> keys(String lane) {
+        List<String> keys = new ArrayList<>(count + 1);
+        keys.add(lane);
+        for (int shard = 0; shard < count; shard++) {
+            keys.add(lane + ":" + shard);
+        }
+        return keys;
+    }
+
+    /**
+     * The entity a job is ordered by: the payment for payment jobs, the merchant for webhooks.
+     * Refunds are ordered by their payment, which ProcessRefundJob does not carry, so refund
+     * producers must pass it as the shard key (JobService.enqueueJob with a shard key).
+     * Anything else is spread by its job id.
+     */
+    public static String shardKeyOf(Object job, String jobId) {
+        if (job instanceof ProcessPaymentJob payment) {
+            return payment.getPaymentId();
+        }
+        if (job instanceof DeliverWebhookJob webhook && webhook.getMerchantId() != null) {
+            return webhook.getMerchantId().toString();
+        }
+        if (job instanceof ProcessRefundJob) {
+            throw new IllegalArgumentException("Refund job " + jobId + " needs its payment id as the shard key");
+        }
+        return jobId;
+    }
+}
@@ -1,9 +1,21 @@
 package com.example.gateway.models;
 
+import java.util.Locale;
+
 public enum CardNetwork {
     VISA,
     MASTERCARD,
     AMEX,
     RUPAY,
-    UNKNOWN
+    DISCOVER,
+    DINERS,
+    MAESTRO,
+    UNKNOWN;
+
+    // Lowercase API form, computed once instead of per response
+    private final String token = name().toLowerCase(Locale.ROOT);
+
+    public String getToken() {
+        return token;
+    }
 }
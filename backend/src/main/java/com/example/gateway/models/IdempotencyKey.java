@@ -7,7 +7,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "idempotency_keys", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"key", "merchant_id"})
+    @UniqueConstraint(name = "uq_idempotency_keys_merchant_key", columnNames = {"merchant_id", "key"})
 })
 public class IdempotencyKey {
     
@@ -18,7 +18,7 @@ public class IdempotencyKey {
     @Column(nullable = false, length = 255)
     private String key;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id", referencedColumnName = "id", nullable = false)
     private Merchant merchant;
     
@@ -105,7 +105,7 @@ public class IdempotencyKey {
 
     @Override
     public String toString() {
-        return "IdempotencyKey [id=" + id + ", key=" + key + ", merchant=" + merchant + ", response=" + response
+        return "IdempotencyKey [id=" + id + ", key=" + key + ", merchant=" + (merchant != null ? merchant.getId() : null) + ", response=" + response
                 + ", createdAt=" + createdAt + ", expiresAt=" + expiresAt + "]";
     }
 }
@@ -1,14 +1,31 @@
 package com.example.gateway.models;
 
+import com.example.gateway.config.JacksonConfig;
+import com.example.gateway.config.JsonCodecs;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
 
 @Converter
 public class JsonNodeConverter implements AttributeConverter<JsonNode, String> {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonCodecs jsonCodecs;
+
+    /**
+     * Used when Hibernate runs inside Spring: Boot hands converter creation to the bean factory,
+     * so the shared codecs are injected.
+     */
+    @Autowired
+    public JsonNodeConverter(JsonCodecs jsonCodecs) {
+        this.jsonCodecs = jsonCodecs;
+    }
+
+    // Used by a plain Hibernate bootstrap (benchmarks), with the same mapper configuration
+    public JsonNodeConverter() {
+        this(new JsonCodecs(JacksonConfig.newObjectMapper(), List.of()));
+    }
 
     @Override
     public String convertToDatabaseColumn(JsonNode attribute) {
@@ -16,7 +33,7 @@ public class JsonNodeConverter implements AttributeConverter<JsonNode, String> {
             return null;
         }
         try {
-            return objectMapper.writeValueAsString(attribute);
+            return jsonCodecs.write(attribute);
         } catch (Exception e) {
             throw new RuntimeException("Error converting JsonNode to String", e);
         }
@@ -28,7 +45,7 @@ public class JsonNodeConverter implements AttributeConverter<JsonNode, String> {
             return null;
         }
         try {
-            return objectMapper.readTree(dbData);
+            return jsonCodecs.readTree(dbData);
         } catch (Exception e) {
             throw new RuntimeException("Error converting String to JsonNode", e);
         }
@@ -4,6 +4,7 @@ import java.time.OffsetDateTime;
 import java.util.List;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 import jakarta.validation.constraints.Min;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
@@ -11,12 +12,12 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 @Table(name = "orders", indexes = {
     @Index(name = "idx_orders_merchant_id", columnList = "merchant_id")
 })
-public class Order {
+public class Order implements Persistable<String> {
     @Id
     @Column(nullable = false, length = 64)
     private String id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id", referencedColumnName = "id", nullable = false)
     private Merchant merchant;
 
@@ -56,6 +57,9 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Payment> payments;
 
+    @Transient
+    private boolean isNew = true;
+
     public Order() {
     }
 
@@ -153,6 +157,17 @@ public class Order {
         this.payments = payments;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
     @Override
     public String toString() {
         return "Order [id=" + id + ", merchant=" + (merchant != null ? merchant.getId() : null) + ", amount=" + amount + ", currency=" + currency
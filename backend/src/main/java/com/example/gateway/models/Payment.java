@@ -3,25 +3,26 @@ package com.example.gateway.models;
 import java.time.OffsetDateTime;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 @Entity
 @Table(name = "payments", indexes = {
     @Index(name = "idx_payments_order_id", columnList = "order_id"),
-    @Index(name = "idx_payments_merchant_id", columnList = "merchant_id"),
+    @Index(name = "idx_payments_merchant_created", columnList = "merchant_id, created_at"),
     @Index(name = "idx_payments_status", columnList = "status")
 })
-public class Payment {
+public class Payment implements Persistable<String> {
     
     @Id
     @Column(nullable = false, length = 64)
     private String id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", referencedColumnName = "id", nullable = false)
     private Order order;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id", referencedColumnName = "id", nullable = false)
     private Merchant merchant;
     
@@ -36,7 +37,8 @@ public class Payment {
     private PaymentMethod method;
     
     @Column(nullable = false, length = 20)
-    private String status = "created";
+    @Convert(converter = PaymentStatusConverter.class)
+    private PaymentStatus status = PaymentStatus.CREATED;
     
     @Column(length = 255)
     private String vpa;
@@ -74,11 +76,22 @@ public class Payment {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
     private OffsetDateTime updatedAt;
 
+    // Optimistic lock: save() of a stale copy fails instead of overwriting a newer write, and the
+    // conditional updates in PaymentRepository bump it too
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Ids are assigned by the application, so Spring Data cannot tell a new entity from its id;
+    // without this flag save() merges, issuing a SELECT before every INSERT and defeating batching
+    @Transient
+    private boolean isNew = true;
+
     public Payment() {
     }
 
     public Payment(String id, Order order, Merchant merchant, int amount, String currency, PaymentMethod method,
-            String status, String vpa, CardNetwork cardNetwork, String cardLast4, String errorCode,
+            PaymentStatus status, String vpa, CardNetwork cardNetwork, String cardLast4, String errorCode,
             String errorDescription, Boolean captured, OffsetDateTime createdAt, OffsetDateTime updatedAt) {
         this.id = id;
         this.order = order;
@@ -157,14 +170,29 @@ public class Payment {
         this.method = method;
     }
 
-    public String getStatus() {
+    public PaymentStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(PaymentStatus status) {
         this.status = status;
     }
 
+    /**
+     * Moves an in-memory payment along the lifecycle, refusing moves PaymentStatus does not allow.
+     */
+    public void transitionTo(PaymentStatus next) {
+        if (!status.canTransitionTo(next)) {
+            throw new IllegalStateException("Payment " + id + " cannot move from " + status.getToken() + " to "
+                    + next.getToken());
+        }
+        this.status = next;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public String getVpa() {
         return vpa;
     }
@@ -229,6 +257,17 @@ public class Payment {
         this.updatedAt = updatedAt;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
     @Override
     public String toString() {
         return "Payment [id=" + id + ", order=" + (order != null ? order.getId() : null) 
@@ -1,6 +1,15 @@
 package com.example.gateway.models;
 
+import java.util.Locale;
+
 public enum PaymentMethod {
     UPI,
-    CARD
+    CARD;
+
+    // Lowercase API form, computed once instead of per response
+    private final String token = name().toLowerCase(Locale.ROOT);
+
+    public String getToken() {
+        return token;
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.gateway.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lifecycle of a payment. Stored and returned in its lowercase form (see PaymentStatusConverter).
+ * A payment goes created -&gt; pending -&gt; processing -&gt; success or failed, skipping pending when
+ * it is processed synchronously; success and failed are final. Writers that can race (workers,
+ * capture) move a payment with a conditional UPDATE on the status they expect rather than a
+ * read-modify-save; see PaymentRepository.
+ */
+public enum PaymentStatus {
+    CREATED,
+    PENDING,
+    PROCESSING,
+    SUCCESS,
+    FAILED;
+
+    // Lowercase stored and API form, computed once instead of per row
+    private final String token = name().toLowerCase(Locale.ROOT);
+
+    @JsonValue
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isTerminal() {
+        return this == SUCCESS || this == FAILED;
+    }
+
+    public boolean canTransitionTo(PaymentStatus next) {
+        return successors().contains(next);
+    }
+
+    private Set<PaymentStatus> successors() {
+        return switch (this) {
+            case CREATED -> EnumSet.of(PENDING, PROCESSING);
+            case PENDING -> EnumSet.of(PROCESSING);
+            case PROCESSING -> EnumSet.of(SUCCESS, FAILED);
+            case SUCCESS, FAILED -> EnumSet.noneOf(PaymentStatus.class);
+        };
+    }
+
+    @JsonCreator
+    public static PaymentStatus fromToken(String token) {
+        for (PaymentStatus status : values()) {
+            if (status.token.equals(token)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payment status: " + token);
+    }
+}
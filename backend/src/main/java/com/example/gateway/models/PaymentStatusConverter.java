@@ -0,0 +1,21 @@
+package com.example.gateway.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Keeps the lowercase values already in payments.status, which @Enumerated(STRING) would not.
+ */
+@Converter
+public class PaymentStatusConverter implements AttributeConverter<PaymentStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(PaymentStatus status) {
+        return status != null ? status.getToken() : null;
+    }
+
+    @Override
+    public PaymentStatus convertToEntityAttribute(String token) {
+        return token != null ? PaymentStatus.fromToken(token) : null;
+    }
+}
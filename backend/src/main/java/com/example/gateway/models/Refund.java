@@ -1,23 +1,25 @@
 package com.example.gateway.models;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "refunds", indexes = {
-    @Index(name = "idx_refunds_payment_id", columnList = "payment_id")
+    @Index(name = "idx_refunds_payment_id", columnList = "payment_id"),
+    @Index(name = "idx_refunds_merchant_created", columnList = "merchant_id, created_at")
 })
-public class Refund {
+public class Refund implements Persistable<String> {
     
     @Id
     @Column(nullable = false, length = 64)
     private String id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "payment_id", referencedColumnName = "id", nullable = false)
     private Payment payment;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id", referencedColumnName = "id", nullable = false)
     private Merchant merchant;
     
@@ -36,6 +38,9 @@ public class Refund {
     @Column(name = "processed_at", columnDefinition = "TIMESTAMPTZ")
     private OffsetDateTime processedAt;
 
+    @Transient
+    private boolean isNew = true;
+
     public Refund() {
     }
 
@@ -125,9 +130,21 @@ public class Refund {
         this.processedAt = processedAt;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
     @Override
     public String toString() {
-        return "Refund [id=" + id + ", payment=" + payment + ", merchant=" + merchant + ", amount=" + amount
+        return "Refund [id=" + id + ", payment=" + (payment != null ? payment.getId() : null)
+                + ", merchant=" + (merchant != null ? merchant.getId() : null) + ", amount=" + amount
                 + ", reason=" + reason + ", status=" + status + ", createdAt=" + createdAt + ", processedAt="
                 + processedAt + "]";
     }
@@ -2,21 +2,21 @@ package com.example.gateway.models;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "webhook_logs", indexes = {
-    @Index(name = "idx_webhook_logs_merchant_id", columnList = "merchant_id"),
-    @Index(name = "idx_webhook_logs_status", columnList = "status"),
-    @Index(name = "idx_webhook_logs_next_retry", columnList = "next_retry_at")
+    @Index(name = "idx_webhook_logs_merchant_created", columnList = "merchant_id, created_at"),
+    @Index(name = "idx_webhook_logs_status", columnList = "status")
 })
-public class WebhookLog {
+public class WebhookLog implements Persistable<String> {
     
     @Id
     @Column(columnDefinition = "varchar(255)")
     private String id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id", referencedColumnName = "id", nullable = false)
     private Merchant merchant;
     
@@ -48,6 +48,9 @@ public class WebhookLog {
     @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMPTZ")
     private OffsetDateTime createdAt;
 
+    @Transient
+    private boolean isNew = true;
+
     public WebhookLog() {
     }
 
@@ -168,9 +171,20 @@ public class WebhookLog {
         this.createdAt = createdAt;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
     @Override
     public String toString() {
-        return "WebhookLog [id=" + id + ", merchant=" + merchant + ", event=" + event + ", payload=" + payload
+        return "WebhookLog [id=" + id + ", merchant=" + (merchant != null ? merchant.getId() : null) + ", event=" + event + ", payload=" + payload
                 + ", status=" + status + ", attempts=" + attempts + ", lastAttemptAt=" + lastAttemptAt
                 + ", nextRetryAt=" + nextRetryAt + ", responseCode=" + responseCode + ", responseBody="
                 + responseBody + ", createdAt=" + createdAt + "]";
@@ -0,0 +1,8 @@
+package com.example.gateway.ratelimit;
+
+/**
+ * Outcome of one rate limit check, carrying what the X-RateLimit-* headers report.
+ * resetSeconds is how long until the bucket is full again; retryAfterSeconds is only set on a denial.
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+}
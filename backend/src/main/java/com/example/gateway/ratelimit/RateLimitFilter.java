@@ -0,0 +1,68 @@
+package com.example.gateway.ratelimit;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds merchant API traffic over its token bucket before the request reaches
+ * AuthenticationService, so a flood costs a Redis script at most. Keys that belong to no merchant
+ * all share one bucket (see TokenBucketRateLimiter), so made-up keys are shed together.
+ * Requests without X-Api-Key are left to the controllers to reject.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnRole(GatewayRole.API)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_KEY_HEADER = "X-Api-Key";
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(TokenBucketRateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return !rateLimiter.isEnabled()
+                || apiKey == null || apiKey.isEmpty()
+                || !request.getRequestURI().startsWith("/api/v1/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitDecision decision = rateLimiter.tryAcquire(request.getHeader(API_KEY_HEADER));
+
+        response.setHeader("X-RateLimit-Limit", Long.toString(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", Long.toString(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", Long.toString(decision.resetSeconds()));
+
+        if (!decision.allowed()) {
+            response.setHeader("Retry-After", Long.toString(decision.retryAfterSeconds()));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("RATE_LIMIT_ERROR", "Too many requests, retry after "
+                            + decision.retryAfterSeconds() + " seconds"));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.gateway.ratelimit;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.repositories.MerchantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-merchant token bucket. The bucket of record lives in Redis (ratelimit:&lt;apiKey&gt;) and is
+ * refilled by a Lua script against Redis server time, so every API node shares one budget.
+ *
+ * To keep most decisions off Redis, a node leases up to rate-limit.lease.size tokens at a time
+ * and spends them locally until they run out or the lease expires. A denial is cached until the
+ * bucket would have a token again. If Redis is unreachable the limiter fails open for
+ * rate-limit.fail-open.ms before trying again.
+ *
+ * X-Api-Key is not authenticated yet, so only the API keys of existing merchants get a bucket of
+ * their own. Every other key shares one bucket with the default limit: inventing keys neither buys
+ * a fresh budget nor adds Redis keys. The known keys are read from the merchant table, and read
+ * again when an unknown key shows up, at most once per rate-limit.known-keys.reload.ms.
+ */
+@Component
+@ConditionalOnRole(GatewayRole.API)
+public class TokenBucketRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // Outside KEY_PREFIX, so that no API key can name it
+    static final String UNKNOWN_KEYS_REDIS_KEY = "ratelimit-unknown-keys";
+
+    @SuppressWarnings("unchecked")
+    private static final Class<List<Long>> LONG_LIST = (Class<List<Long>>) (Class<?>) List.class;
+
+    private final StringRedisTemplate redisTemplate;
+    private final MerchantRepository merchantRepository;
+    private final RedisScript<List<Long>> script;
+    private final boolean enabled;
+    private final Limit defaultLimit;
+    private final Map<String, Limit> overrides;
+    private final int leaseSize;
+    private final long leaseTtlNanos;
+    private final long failOpenNanos;
+    private final long knownKeysReloadNanos;
+    private final Cache<String, LocalBucket> buckets;
+    private final LocalBucket unknownKeys;
+    private final AtomicLong nextKnownKeysReload;
+    private final Counter allowedLocal;
+    private final Counter allowedRedis;
+    private final Counter denied;
+    private final Counter failedOpen;
+
+    // null until the merchant table has been read once
+    private volatile Set<String> knownApiKeys;
+    private volatile long redisDownUntil;
+
+    public TokenBucketRateLimiter(
+            StringRedisTemplate redisTemplate,
+            MerchantRepository merchantRepository,
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.enabled:true}") boolean enabled,
+            @Value("${rate-limit.capacity:100}") long defaultCapacity,
+            @Value("${rate-limit.refill.per.second:50}") double defaultRefillPerSecond,
+            @Value("${rate-limit.overrides:}") String overrides,
+            @Value("${rate-limit.lease.size:5}") int leaseSize,
+            @Value("${rate-limit.lease.ttl.ms:1000}") long leaseTtlMillis,
+            @Value("${rate-limit.fail-open.ms:1000}") long failOpenMillis,
+            @Value("${rate-limit.known-keys.reload.ms:1000}") long knownKeysReloadMillis,
+            @Value("${rate-limit.local.max-keys:10000}") int maxLocalKeys) {
+        this.redisTemplate = redisTemplate;
+        this.merchantRepository = merchantRepository;
+        this.script = RedisScript.of(new ClassPathResource("ratelimit/token-bucket.lua"), LONG_LIST);
+        this.enabled = enabled;
+        this.defaultLimit = new Limit(defaultCapacity, defaultRefillPerSecond);
+        this.overrides = parseOverrides(overrides);
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(leaseTtlMillis);
+        this.failOpenNanos = TimeUnit.MILLISECONDS.toNanos(failOpenMillis);
+        this.knownKeysReloadNanos = TimeUnit.MILLISECONDS.toNanos(knownKeysReloadMillis);
+        // Bounded by the merchant count once the known keys are loaded; the bound only matters
+        // while they cannot be read and buckets are keyed on whatever arrives
+        this.buckets = Caffeine.newBuilder().maximumSize(maxLocalKeys).build();
+        this.unknownKeys = new LocalBucket(UNKNOWN_KEYS_REDIS_KEY, defaultLimit);
+        this.nextKnownKeysReload = new AtomicLong(System.nanoTime());
+        this.allowedLocal = decisions(meterRegistry, "allowed_local");
+        this.allowedRedis = decisions(meterRegistry, "allowed_redis");
+        this.denied = decisions(meterRegistry, "denied");
+        this.failedOpen = decisions(meterRegistry, "fail_open");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public RateLimitDecision tryAcquire(String apiKey) {
+        return bucketFor(apiKey).tryAcquire(System.nanoTime());
+    }
+
+    private LocalBucket bucketFor(String apiKey) {
+        Set<String> known = knownApiKeys;
+        if (known == null || !known.contains(apiKey)) {
+            reloadKnownApiKeys();
+            known = knownApiKeys;
+        }
+        if (known != null && !known.contains(apiKey)) {
+            return unknownKeys;
+        }
+        // Known, or the merchant table could not be read yet
+        return buckets.get(apiKey, key -> new LocalBucket(KEY_PREFIX + key, overrides.getOrDefault(key, defaultLimit)));
+    }
+
+    private void reloadKnownApiKeys() {
+        long now = System.nanoTime();
+        long next = nextKnownKeysReload.get();
+        if (now - next < 0 || !nextKnownKeysReload.compareAndSet(next, now + knownKeysReloadNanos)) {
+            return;
+        }
+        try {
+            knownApiKeys = Set.copyOf(merchantRepository.findAllApiKeys());
+        } catch (RuntimeException e) {
+            logger.warn("Could not load merchant API keys for rate limiting: {}", e.getMessage());
+        }
+    }
+
+    private final class LocalBucket {
+        private final String redisKey;
+        private final long capacity;
+        private final double refillPerSecond;
+        private final String capacityArg;
+        private final String refillArg;
+        private final String leaseArg;
+
+        // Guarded by this; never held across the Redis call
+        private long leased;
+        private long leaseExpiresAt;
+        private long deniedUntil;
+        private long remainingAtLease;
+
+        LocalBucket(String redisKey, Limit limit) {
+            this.redisKey = redisKey;
+            this.capacity = limit.capacity();
+            this.refillPerSecond = limit.refillPerSecond();
+            this.capacityArg = Long.toString(capacity);
+            this.refillArg = Double.toString(refillPerSecond);
+            this.leaseArg = Long.toString(Math.min(leaseSize, capacity));
+        }
+
+        RateLimitDecision tryAcquire(long now) {
+            synchronized (this) {
+                if (leased > 0 && now - leaseExpiresAt < 0) {
+                    leased--;
+                    allowedLocal.increment();
+                    return allow(remainingAtLease + leased);
+                }
+                if (now - deniedUntil < 0) {
+                    denied.increment();
+                    return deny(TimeUnit.NANOSECONDS.toMillis(deniedUntil - now));
+                }
+            }
+            if (now - redisDownUntil < 0) {
+                failedOpen.increment();
+                return allow(capacity);
+            }
+
+            // Concurrent misses on one bucket each go to Redis; whatever they lease is pooled below
+            Grant grant;
+            try {
+                grant = Grant.of(redisTemplate.execute(script, List.of(redisKey), capacityArg, refillArg, leaseArg));
+            } catch (Exception e) {
+                logger.warn("Rate limiter unavailable, allowing requests for {} ms: {}",
+                        TimeUnit.NANOSECONDS.toMillis(failOpenNanos), e.getMessage());
+                redisDownUntil = now + failOpenNanos;
+                failedOpen.increment();
+                return allow(capacity);
+            }
+
+            synchronized (this) {
+                if (grant.granted() == 0) {
+                    deniedUntil = now + TimeUnit.MILLISECONDS.toNanos(grant.retryAfterMillis());
+                    denied.increment();
+                    return deny(grant.retryAfterMillis());
+                }
+                if (now - leaseExpiresAt >= 0) {
+                    leased = 0;
+                }
+                // One granted token is spent by this request; the rest are held for the lease period
+                leased += grant.granted() - 1;
+                leaseExpiresAt = now + leaseTtlNanos;
+                remainingAtLease = grant.remaining();
+                allowedRedis.increment();
+                return allow(grant.remaining() + leased);
+            }
+        }
+
+        private RateLimitDecision allow(long remaining) {
+            return new RateLimitDecision(true, capacity, remaining, secondsUntilFull(remaining), 0);
+        }
+
+        private RateLimitDecision deny(long retryAfterMillis) {
+            long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+            return new RateLimitDecision(false, capacity, 0, secondsUntilFull(0), retryAfterSeconds);
+        }
+
+        private long secondsUntilFull(long remaining) {
+            return (long) Math.ceil((capacity - remaining) / refillPerSecond);
+        }
+    }
+
+    /**
+     * Reply of token-bucket.lua: {granted, remaining, retry_after_ms}.
+     */
+    private record Grant(long granted, long remaining, long retryAfterMillis) {
+
+        static Grant of(List<Long> reply) {
+            if (reply == null || reply.size() != 3) {
+                throw new IllegalStateException("Unexpected rate limit script reply: " + reply);
+            }
+            return new Grant(reply.get(0), reply.get(1), reply.get(2));
+        }
+    }
+
+    private record Limit(long capacity, double refillPerSecond) {
+    }
+
+    /**
+     * Parses "apiKey:capacity:refillPerSecond" entries separated by commas.
+     */
+    private static Map<String, Limit> parseOverrides(String overrides) {
+        Map<String, Limit> parsed = new HashMap<>();
+        if (overrides == null || overrides.isBlank()) {
+            return parsed;
+        }
+        for (String entry : overrides.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid rate-limit.overrides entry: " + entry);
+            }
+            parsed.put(parts[0], new Limit(Long.parseLong(parts[1]), Double.parseDouble(parts[2])));
+        }
+        return parsed;
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.ratelimit.decisions")
+                .description("Rate limit decisions by where they were made")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -15,4 +15,7 @@ public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey,
     Optional<IdempotencyKey> findValidByKeyAndMerchant(@Param("key") String key, @Param("merchantId") UUID merchantId, @Param("now") OffsetDateTime now);
     
     Optional<IdempotencyKey> findByKeyAndMerchantId(String key, UUID merchantId);
+
+    // By the merchant's API key, so the lookup need not wait for authentication to resolve the merchant
+    Optional<IdempotencyKey> findByKeyAndMerchantApiKey(String key, String apiKey);
 }
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.example.gateway.models.Merchant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,4 +15,7 @@ public interface MerchantRepository extends JpaRepository<Merchant, UUID> {
     
     @Query("SELECT m FROM Merchant m WHERE m.apiKey = :apiKey AND m.apiSecret = :apiSecret")
     Optional<Merchant> findByApiKeyAndApiSecret(@Param("apiKey") String apiKey, @Param("apiSecret") String apiSecret);
+
+    @Query("SELECT m.apiKey FROM Merchant m")
+    List<String> findAllApiKeys();
 }
@@ -1,12 +1,51 @@
 package com.example.gateway.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, String> {
     List<Payment> findByMerchantId(UUID merchantId);
+
+    /**
+     * Lookup by id bounded on created_at, so Postgres only probes the partitions from since onwards.
+     */
+    Optional<Payment> findByIdAndCreatedAtGreaterThanEqual(String id, OffsetDateTime since);
+
+    /**
+     * Takes a payment for processing: pending (or processing, left by a worker that died or by a
+     * job running twice) to processing, bumping the version so that only the latest claimant's
+     * outcome can be written. 0 when the payment is finished or missing, which is how duplicate
+     * and late jobs are turned away in one statement.
+     */
+    default int claimForProcessing(String id, OffsetDateTime since, OffsetDateTime now) {
+        return claim(id, since, now, PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+    }
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = :processing, p.updatedAt = :now, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.createdAt >= :since AND p.status IN (:pending, :processing)")
+    int claim(@Param("id") String id, @Param("since") OffsetDateTime since, @Param("now") OffsetDateTime now,
+            @Param("pending") PaymentStatus pending, @Param("processing") PaymentStatus processing);
+
+    /**
+     * Sets captured on a payment that is still in the expected status; 0 when it is not.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.captured = true, p.updatedAt = :now, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.createdAt = :createdAt AND p.status = :expected")
+    int markCaptured(@Param("id") String id, @Param("createdAt") OffsetDateTime createdAt,
+            @Param("expected") PaymentStatus expected, @Param("now") OffsetDateTime now);
 }
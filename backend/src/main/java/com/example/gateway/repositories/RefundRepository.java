@@ -3,7 +3,11 @@ package com.example.gateway.repositories;
 import com.example.gateway.models.Payment;
 import com.example.gateway.models.Refund;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +16,16 @@ public interface RefundRepository extends JpaRepository<Refund, String> {
     List<Refund> findByMerchantId(java.util.UUID merchantId);
     List<Refund> findByStatus(String status);
     List<Refund> findByPayment(Payment payment);
+
+    /**
+     * Total amount of a payment's refunds that have not failed, summed in the database.
+     */
+    @Query("SELECT COALESCE(SUM(r.amount), 0) FROM Refund r WHERE r.payment.id = :paymentId AND r.status <> 'failed'")
+    long sumActiveRefundAmount(@Param("paymentId") String paymentId);
+
+    /**
+     * The refund worker checks the payment's status and amount, so fetch it in the same select.
+     */
+    @EntityGraph(attributePaths = "payment")
+    Optional<Refund> findWithPaymentById(String id);
 }
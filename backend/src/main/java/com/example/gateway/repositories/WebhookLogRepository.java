@@ -1,9 +1,12 @@
 package com.example.gateway.repositories;
 
+import com.example.gateway.dto.WebhookLogSummary;
 import com.example.gateway.models.WebhookLog;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,8 +19,31 @@ public interface WebhookLogRepository extends JpaRepository<WebhookLog, String>
     List<WebhookLog> findByMerchantIdAndStatus(UUID merchantId, String status);
     List<WebhookLog> findByEvent(String event);
     
-    @Query("SELECT w FROM WebhookLog w WHERE w.status = 'pending' AND w.nextRetryAt IS NOT NULL AND w.nextRetryAt <= :now ORDER BY w.nextRetryAt ASC")
-    List<WebhookLog> findPendingRetries(@Param("now") OffsetDateTime now);
+    /**
+     * Logs created before since are never scanned; retries are scheduled within hours of creation.
+     */
+    @Query("SELECT w FROM WebhookLog w WHERE w.status = 'pending' AND w.nextRetryAt IS NOT NULL AND w.nextRetryAt <= :now "
+            + "AND w.createdAt >= :since ORDER BY w.nextRetryAt ASC")
+    List<WebhookLog> findPendingRetries(@Param("now") OffsetDateTime now, @Param("since") OffsetDateTime since);
     
     List<WebhookLog> findByMerchantIdAndEvent(UUID merchantId, String event);
+
+    /**
+     * One page of a merchant's webhook logs as a projection; pagination happens in the database.
+     */
+    @Query("SELECT new com.example.gateway.dto.WebhookLogSummary(w.id, w.event, w.status, w.attempts, w.createdAt, w.lastAttemptAt, w.responseCode) "
+            + "FROM WebhookLog w WHERE w.merchant.id = :merchantId ORDER BY w.createdAt DESC, w.id LIMIT :limit OFFSET :offset")
+    List<WebhookLogSummary> findSummariesByMerchantId(@Param("merchantId") UUID merchantId,
+            @Param("limit") int limit, @Param("offset") int offset);
+
+    long countByMerchantId(UUID merchantId);
+
+    /**
+     * Delivery needs the merchant's URL and secret, so fetch it in the same select.
+     */
+    @EntityGraph(attributePaths = "merchant")
+    Optional<WebhookLog> findWithMerchantById(String id);
+
+    @EntityGraph(attributePaths = "merchant")
+    Optional<WebhookLog> findWithMerchantByIdAndCreatedAtGreaterThanEqual(String id, OffsetDateTime since);
 }
@@ -0,0 +1,74 @@
+package com.example.gateway.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds the current BIN range table and swaps in a new one when the source file changes.
+ * Lookups read a volatile reference, so a reload never blocks card validation.
+ * A file that fails to parse is logged and the previous table stays in use.
+ */
+@Service
+public class BinRangeRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinRangeRegistry.class);
+
+    private final Resource location;
+    private volatile BinRangeTable table;
+    private volatile long lastModified;
+
+    public BinRangeRegistry(@Value("${card.bin-ranges.location:classpath:bin-ranges.csv}") Resource location) {
+        this.location = location;
+        this.lastModified = lastModified(location);
+        this.table = load(location);
+        logger.info("Loaded {} BIN ranges ({} intervals) from {}", table.sourceRanges(), table.size(), location);
+    }
+
+    public BinRangeTable getTable() {
+        return table;
+    }
+
+    /**
+     * Reload when the resource's modification time changes.
+     * Classpath resources inside a jar never change, so this is a no-op for the bundled file.
+     */
+    @Scheduled(fixedDelayString = "${card.bin-ranges.refresh-interval-ms:60000}",
+            initialDelayString = "${card.bin-ranges.refresh-interval-ms:60000}")
+    public void refresh() {
+        long modified = lastModified(location);
+        if (modified == lastModified) {
+            return;
+        }
+        try {
+            BinRangeTable reloaded = load(location);
+            table = reloaded;
+            lastModified = modified;
+            logger.info("Reloaded {} BIN ranges ({} intervals) from {}",
+                    reloaded.sourceRanges(), reloaded.size(), location);
+        } catch (RuntimeException e) {
+            logger.error("Could not reload BIN ranges from {}, keeping the previous table", location, e);
+        }
+    }
+
+    private static BinRangeTable load(Resource resource) {
+        try (InputStream input = resource.getInputStream()) {
+            return BinRangeTable.parse(input);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read BIN ranges from " + resource, e);
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+}
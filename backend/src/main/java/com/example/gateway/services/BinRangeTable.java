@@ -0,0 +1,206 @@
+package com.example.gateway.services;
+
+import com.example.gateway.models.CardNetwork;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable BIN range table. Ranges are normalised to 8-digit BINs and flattened into
+ * non-overlapping intervals held in sorted primitive arrays, so a lookup is one binary search.
+ * <p>
+ * Overlaps are resolved while building: ranges are applied widest first, so a narrower range
+ * overrides the part of a wider one it covers.
+ */
+public final class BinRangeTable {
+
+    public static final int BIN_DIGITS = 8;
+
+    private static final CardNetwork[] NETWORKS = CardNetwork.values();
+    private static final String DEFAULT_RESOURCE = "/bin-ranges.csv";
+
+    private final int[] starts;
+    private final int[] ends;
+    private final byte[] networks;
+    private final int sourceRanges;
+
+    private BinRangeTable(int[] starts, int[] ends, byte[] networks, int sourceRanges) {
+        this.starts = starts;
+        this.ends = ends;
+        this.networks = networks;
+        this.sourceRanges = sourceRanges;
+    }
+
+    /**
+     * A range as written in the source file, already normalised to 8 digits.
+     */
+    public record BinRange(int start, int end, CardNetwork network) {
+        public BinRange {
+            if (start > end) {
+                throw new IllegalArgumentException("BIN range start " + start + " is after end " + end);
+            }
+            if (network == null || network == CardNetwork.UNKNOWN) {
+                throw new IllegalArgumentException("BIN range needs a known network");
+            }
+        }
+    }
+
+    /**
+     * Network for an 8-digit BIN, or UNKNOWN if no range covers it.
+     */
+    public CardNetwork lookup(int bin) {
+        int low = 0;
+        int high = starts.length - 1;
+        // Find the last interval starting at or before bin
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= bin) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high >= 0 && bin <= ends[high]) {
+            return NETWORKS[networks[high]];
+        }
+        return CardNetwork.UNKNOWN;
+    }
+
+    /**
+     * Number of disjoint intervals after flattening.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Number of ranges the table was built from.
+     */
+    public int sourceRanges() {
+        return sourceRanges;
+    }
+
+    public static BinRangeTable of(List<BinRange> ranges) {
+        List<BinRange> widestFirst = new ArrayList<>(ranges);
+        widestFirst.sort(Comparator.comparingLong((BinRange r) -> (long) r.end() - r.start()).reversed());
+
+        // start -> {end, network ordinal}; entries never overlap
+        TreeMap<Integer, int[]> intervals = new TreeMap<>();
+        for (BinRange range : widestFirst) {
+            paint(intervals, range.start(), range.end(), range.network().ordinal());
+        }
+
+        int size = intervals.size();
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        byte[] networks = new byte[size];
+        int i = 0;
+        for (Map.Entry<Integer, int[]> interval : intervals.entrySet()) {
+            starts[i] = interval.getKey();
+            ends[i] = interval.getValue()[0];
+            networks[i] = (byte) interval.getValue()[1];
+            i++;
+        }
+        return new BinRangeTable(starts, ends, networks, ranges.size());
+    }
+
+    /**
+     * Overwrite [start, end] with the network, trimming whatever was there before.
+     */
+    private static void paint(TreeMap<Integer, int[]> intervals, int start, int end, int network) {
+        Map.Entry<Integer, int[]> before = intervals.floorEntry(start);
+        if (before != null && before.getKey() < start && before.getValue()[0] >= start) {
+            int[] value = before.getValue();
+            if (value[0] > end) {
+                intervals.put(end + 1, new int[] {value[0], value[1]});
+            }
+            value[0] = start - 1;
+        }
+
+        Map<Integer, int[]> covered = intervals.subMap(start, true, end, true);
+        if (!covered.isEmpty()) {
+            int[] last = intervals.floorEntry(end).getValue();
+            if (last[0] > end) {
+                intervals.put(end + 1, new int[] {last[0], last[1]});
+            }
+            covered.clear();
+        }
+
+        intervals.put(start, new int[] {end, network});
+    }
+
+    /**
+     * Parse "start,end,NETWORK" lines; blank lines and lines starting with # are ignored.
+     */
+    public static BinRangeTable parse(InputStream input) throws IOException {
+        List<BinRange> ranges = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Invalid BIN range at line " + lineNumber + ": " + line);
+            }
+            try {
+                ranges.add(new BinRange(
+                        normalise(fields[0].trim(), '0'),
+                        normalise(fields[1].trim(), '9'),
+                        CardNetwork.valueOf(fields[2].trim().toUpperCase())));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid BIN range at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return of(ranges);
+    }
+
+    /**
+     * Table built from the bin-ranges.csv bundled with the application.
+     */
+    public static BinRangeTable defaults() {
+        return DefaultHolder.TABLE;
+    }
+
+    private static int normalise(String prefix, char pad) {
+        if (prefix.isEmpty() || prefix.length() > BIN_DIGITS) {
+            throw new IllegalArgumentException("BIN prefix must have 1-" + BIN_DIGITS + " digits: " + prefix);
+        }
+        int value = 0;
+        for (int i = 0; i < BIN_DIGITS; i++) {
+            char c = i < prefix.length() ? prefix.charAt(i) : pad;
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("BIN prefix must be numeric: " + prefix);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static final class DefaultHolder {
+        private static final BinRangeTable TABLE = load();
+
+        private static BinRangeTable load() {
+            try (InputStream input = BinRangeTable.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+                if (input == null) {
+                    throw new IllegalStateException("Missing classpath resource " + DEFAULT_RESOURCE);
+                }
+                return parse(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
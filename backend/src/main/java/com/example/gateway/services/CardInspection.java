@@ -0,0 +1,99 @@
+package com.example.gateway.services;
+
+import com.example.gateway.models.CardNetwork;
+
+/**
+ * Result of a single pass over a card number, see {@link CardInspector}.
+ */
+public final class CardInspection {
+
+    public static final int MIN_LENGTH = 13;
+    public static final int MAX_LENGTH = 19;
+
+    private final CharSequence source;
+    private final boolean digitsOnly;
+    private final int length;
+    private final boolean luhnValid;
+    private final int bin;
+    private final CardNetwork network;
+    // Last four characters after separators are removed, 16 bits each, oldest in the high bits
+    private final long last4Packed;
+
+    CardInspection(CharSequence source, boolean digitsOnly, int length, boolean luhnValid,
+            int bin, CardNetwork network, long last4Packed) {
+        this.source = source;
+        this.digitsOnly = digitsOnly;
+        this.length = length;
+        this.luhnValid = luhnValid;
+        this.bin = bin;
+        this.network = network;
+        this.last4Packed = last4Packed;
+    }
+
+    /**
+     * Digits only (after removing spaces and dashes), 13-19 long and passing the Luhn check.
+     */
+    public boolean isValid() {
+        return digitsOnly && length >= MIN_LENGTH && length <= MAX_LENGTH && luhnValid;
+    }
+
+    public boolean isDigitsOnly() {
+        return digitsOnly;
+    }
+
+    public boolean isLuhnValid() {
+        return luhnValid;
+    }
+
+    /**
+     * Number of characters left after removing spaces and dashes.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * First 8 digits as a number, zero padded on the right when the card is shorter.
+     */
+    public int getBin() {
+        return bin;
+    }
+
+    public CardNetwork getNetwork() {
+        return network;
+    }
+
+    /**
+     * Last four characters of the cleaned number, or null if it is shorter than four.
+     */
+    public String getLast4() {
+        if (length < 4) {
+            return null;
+        }
+        char[] chars = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            chars[i] = (char) ((last4Packed >>> ((3 - i) * 16)) & 0xFFFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Card number with spaces and dashes removed. Builds a new String, so only call it when needed.
+     */
+    public String getCleanedNumber() {
+        StringBuilder cleaned = new StringBuilder(length);
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (!CardInspector.isSeparator(c)) {
+                cleaned.append(c);
+            }
+        }
+        return cleaned.toString();
+    }
+
+    @Override
+    public String toString() {
+        // Never include the number itself
+        return "CardInspection [length=" + length + ", valid=" + isValid() + ", network=" + network + "]";
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.gateway.services;
+
+import com.example.gateway.models.CardNetwork;
+
+/**
+ * Scans a card number once, without building intermediate Strings, and collects everything
+ * ValidationService needs: digits-only check, length, Luhn validity, BIN, network and last 4.
+ * <p>
+ * Spaces and dashes are skipped. The Luhn sum is kept for both parities while scanning left to
+ * right, because which digits get doubled depends on the total length, known only at the end.
+ */
+public final class CardInspector {
+
+    // Luhn doubling with the "subtract 9" step applied
+    private static final int[] DOUBLED = {0, 2, 4, 6, 8, 1, 3, 5, 7, 9};
+
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000};
+
+    private CardInspector() {
+    }
+
+    static boolean isSeparator(char c) {
+        // Same set as the regex [\s-]
+        return c == ' ' || c == '-' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    /**
+     * Inspect using the BIN ranges bundled with the application.
+     */
+    public static CardInspection inspect(CharSequence cardNumber) {
+        return inspect(cardNumber, BinRangeTable.defaults());
+    }
+
+    public static CardInspection inspect(CharSequence cardNumber, BinRangeTable binRanges) {
+        if (cardNumber == null) {
+            return new CardInspection("", false, 0, false, 0, CardNetwork.UNKNOWN, 0L);
+        }
+
+        int length = 0;
+        boolean digitsOnly = true;
+        // Leading digits (up to 8) while the number is still well formed
+        int bin = 0;
+        int binDigits = 0;
+        // sumEven doubles digits at even indexes (from the left), sumOdd at odd indexes
+        int sumEven = 0;
+        int sumOdd = 0;
+        long last4 = 0L;
+
+        for (int i = 0, n = cardNumber.length(); i < n; i++) {
+            char c = cardNumber.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            }
+            last4 = (last4 << 16) | c;
+
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                digitsOnly = false;
+                length++;
+                continue;
+            }
+            if (digitsOnly && binDigits < BinRangeTable.BIN_DIGITS) {
+                bin = bin * 10 + digit;
+                binDigits++;
+            }
+            if ((length & 1) == 0) {
+                sumEven += DOUBLED[digit];
+                sumOdd += digit;
+            } else {
+                sumEven += digit;
+                sumOdd += DOUBLED[digit];
+            }
+            length++;
+        }
+
+        // With an even length the leftmost digit is doubled, with an odd length it is not
+        int luhnSum = (length & 1) == 0 ? sumEven : sumOdd;
+        boolean luhnValid = digitsOnly && length > 0 && luhnSum % 10 == 0;
+
+        // Shorter numbers are padded with zeros to a full 8-digit BIN
+        CardNetwork network = CardNetwork.UNKNOWN;
+        if (binDigits > 0) {
+            bin *= POWERS_OF_TEN[BinRangeTable.BIN_DIGITS - binDigits];
+            network = binRanges.lookup(bin);
+        }
+
+        return new CardInspection(cardNumber, digitsOnly && length > 0, length, luhnValid, bin, network, last4);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.gateway.services;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Immutable result of one background health check round.
+ * Statuses use the strings /health has always returned (connected, disconnected, skipped, running, stopped).
+ */
+public record HealthSnapshot(
+        String databaseStatus,
+        long databaseLatencyMicros,
+        String redisStatus,
+        long redisLatencyMicros,
+        String workerStatus,
+        long workerLatencyMicros,
+        OffsetDateTime checkedAt) {
+
+    static HealthSnapshot initial() {
+        return new HealthSnapshot("unknown", -1, "unknown", -1, "unknown", -1, null);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.gateway.services;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.workers.WorkerStatusService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checks database, Redis and worker liveness on a dedicated background thread every
+ * health.refresh.interval.ms and publishes the result as an immutable snapshot.
+ * Health endpoints read the snapshot, so probes never touch a dependency themselves.
+ */
+@Service
+@ConditionalOnRole(GatewayRole.API)
+public class HealthSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthSnapshotService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final WorkerStatusService workerStatusService;
+    private final boolean redisOptional;
+    private final boolean workerOptional;
+    private final long refreshIntervalMillis;
+    private final ScheduledExecutorService refresher;
+
+    private volatile HealthSnapshot snapshot = HealthSnapshot.initial();
+
+    public HealthSnapshotService(
+            JdbcTemplate jdbcTemplate,
+            StringRedisTemplate redisTemplate,
+            WorkerStatusService workerStatusService,
+            @Value("${health.redis.optional:false}") boolean redisOptional,
+            @Value("${health.worker.optional:true}") boolean workerOptional,
+            @Value("${health.refresh.interval.ms:5000}") long refreshIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.workerStatusService = workerStatusService;
+        this.redisOptional = redisOptional;
+        this.workerOptional = workerOptional;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    public HealthSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isRedisOptional() {
+        return redisOptional;
+    }
+
+    public boolean isWorkerOptional() {
+        return workerOptional;
+    }
+
+    /**
+     * A snapshot older than three refresh intervals means the refresher is stuck.
+     */
+    public boolean isStale(HealthSnapshot current) {
+        return current.checkedAt() == null
+                || current.checkedAt().isBefore(OffsetDateTime.now().minusNanos(
+                        TimeUnit.MILLISECONDS.toNanos(refreshIntervalMillis * 3)));
+    }
+
+    void refresh() {
+        try {
+            long start = System.nanoTime();
+            String databaseStatus = checkDatabase();
+            long databaseLatency = micros(start);
+
+            start = System.nanoTime();
+            String redisStatus = checkRedis();
+            long redisLatency = micros(start);
+
+            start = System.nanoTime();
+            String workerStatus = checkWorker();
+            long workerLatency = micros(start);
+
+            snapshot = new HealthSnapshot(databaseStatus, databaseLatency, redisStatus, redisLatency,
+                    workerStatus, workerLatency, OffsetDateTime.now(ZoneId.of("Asia/Kolkata")));
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            logger.error("Health refresh failed", e);
+        }
+    }
+
+    private static long micros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    private String checkDatabase() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return "connected";
+        } catch (Exception e) {
+            return "disconnected";
+        }
+    }
+
+    private String checkRedis() {
+        try {
+            try (var connection = redisTemplate.getRequiredConnectionFactory().getConnection()) {
+                String pong = connection.ping();
+                return "PONG".equalsIgnoreCase(pong) ? "connected" : "disconnected";
+            }
+        } catch (Exception e) {
+            return redisOptional ? "skipped" : "disconnected";
+        }
+    }
+
+    private String checkWorker() {
+        try {
+            return workerStatusService.isRunning() ? "running" : workerOptional ? "skipped" : "stopped";
+        } catch (Exception e) {
+            return workerOptional ? "skipped" : "stopped";
+        }
+    }
+}
@@ -29,6 +29,16 @@ public class IDGeneratorService {
         } while (paymentRepository.findById(candidate).isPresent());
         return candidate;
     }
+
+    /**
+     * Payment ID without the existence check, for callers that cannot afford the extra query.
+     * 16 characters from 62 give 62^16 (about 4.8e28) IDs, so the chance of any collision among a
+     * billion payments is around 1e-11.
+     */
+    public String newPaymentId() {
+        return "pay_" + generateRandomString(16);
+    }
+
     /**
      * Generate refund ID: "rfnd_" + 16 alphanumeric characters
      */
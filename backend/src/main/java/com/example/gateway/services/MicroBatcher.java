@@ -0,0 +1,165 @@
+package com.example.gateway.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group commit for writes submitted by concurrent requests. Items queue up and a single flusher
+ * thread hands them to the writer in batches: a batch closes when it holds max-size items or when
+ * the window since its first item has passed, so a lone request waits at most one window and a
+ * busy node pays one round trip and one commit per batch instead of per request.
+ * <p>
+ * If the writer throws for a batch, every item in it is written again on its own, so one bad row
+ * (a constraint violation) only fails its own request. The writer therefore has to be atomic per
+ * call, typically one transaction.
+ * <p>
+ * Futures are completed on the flusher thread; callers continue with the *Async stages so that
+ * their work does not hold up the next batch.
+ */
+public class MicroBatcher<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicroBatcher.class);
+
+    record Entry<T>(T item, CompletableFuture<Void> done) {
+    }
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Consumer<List<T>> writer;
+    private final BlockingQueue<Entry<T>> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name, int maxBatchSize, Duration window, int queueCapacity,
+            Consumer<List<T>> writer, MeterRegistry meterRegistry) {
+        this(name, maxBatchSize, window, new ArrayBlockingQueue<>(queueCapacity), writer, meterRegistry);
+    }
+
+    MicroBatcher(String name, int maxBatchSize, Duration window, BlockingQueue<Entry<T>> queue,
+            Consumer<List<T>> writer, MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException(name + " batch size must be at least 1");
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.writer = writer;
+        this.queue = queue;
+        this.batchSizes = DistributionSummary.builder("gateway.batch.size")
+                .description("Items written per micro-batch")
+                .tag("batcher", name)
+                .register(meterRegistry);
+        this.flusher = new Thread(this::run, name + "-batcher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues the item for the next batch. The future completes once the batch holding it has been
+     * written, or exceptionally with the writer's exception, or with RejectedExecutionException
+     * when the queue is full or the batcher is closed.
+     */
+    public CompletableFuture<Void> submit(T item) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Entry<T> entry = new Entry<>(item, done);
+        if (!running) {
+            done.completeExceptionally(new RejectedExecutionException(name + " batcher is closed"));
+        } else if (!queue.offer(entry)) {
+            done.completeExceptionally(new RejectedExecutionException(name + " batch queue is full"));
+        } else if (!running && queue.remove(entry)) {
+            // close() started after the check above and may already have drained the queue; an entry
+            // still there would never complete. If it is gone, the flusher or close() completes it.
+            done.completeExceptionally(new RejectedExecutionException(name + " batcher is closed"));
+        }
+        return done;
+    }
+
+    /**
+     * Writes what is already queued, then stops the flusher.
+     */
+    public void close() {
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Entry<T> left;
+        while ((left = queue.poll()) != null) {
+            left.done().completeExceptionally(new RejectedExecutionException(name + " batcher is closed"));
+        }
+    }
+
+    private void run() {
+        List<Entry<T>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry<T>> batch) {
+        batchSizes.record(batch.size());
+        List<T> items = new ArrayList<>(batch.size());
+        for (Entry<T> entry : batch) {
+            items.add(entry.item());
+        }
+        try {
+            writer.accept(items);
+            batch.forEach(entry -> entry.done().complete(null));
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).done().completeExceptionally(e);
+                return;
+            }
+            logger.warn("{} batch of {} failed, writing its items one by one: {}", name, batch.size(), e.getMessage());
+        }
+        for (Entry<T> entry : batch) {
+            try {
+                writer.accept(List.of(entry.item()));
+                entry.done().complete(null);
+            } catch (RuntimeException e) {
+                entry.done().completeExceptionally(e);
+            }
+        }
+    }
+}
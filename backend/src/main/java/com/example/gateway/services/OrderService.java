@@ -18,13 +18,15 @@ public class OrderService {
     private final MerchantRepository merchantRepository;
     private final OrderRepository orderRepository;
     private final ObjectMapper objectMapper;
+    private final ReplicaReads replicaReads;
 
     // Constructor Injection (Best Practice)
     public OrderService(MerchantRepository merchantRepository, OrderRepository orderRepository,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper, ReplicaReads replicaReads) {
         this.merchantRepository = merchantRepository;
         this.orderRepository = orderRepository;
         this.objectMapper = objectMapper;
+        this.replicaReads = replicaReads;
     }
 
     /**
@@ -93,7 +95,7 @@ public class OrderService {
     }
 
     public Order getOrder(String order_id) {
-        return orderRepository.findById(order_id)
+        return replicaReads.findById(() -> orderRepository.findById(order_id))
                 .orElseThrow(() -> new IllegalArgumentException("NOT_FOUND_ERROR|Order not found"));
     }
 }
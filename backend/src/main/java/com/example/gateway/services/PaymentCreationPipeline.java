@@ -0,0 +1,253 @@
+package com.example.gateway.services;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.dto.CreatePaymentRequest;
+import com.example.gateway.dto.PaymentResponse;
+import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobServiceImpl;
+import com.example.gateway.jobs.ProcessPaymentJob;
+import com.example.gateway.models.IdempotencyKey;
+import com.example.gateway.models.Merchant;
+import com.example.gateway.models.Order;
+import com.example.gateway.models.Payment;
+import com.example.gateway.repositories.IdempotencyKeyRepository;
+import com.example.gateway.repositories.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates payments for POST /api/v1/payments off the servlet thread, in three stages:
+ * <ol>
+ * <li>Authentication, the idempotency key lookup (by API key, so it need not wait for the
+ * merchant) and the order lookup run in parallel.</li>
+ * <li>The pending payment and its idempotency key row are queued on a {@link MicroBatcher}, which
+ * inserts the payments of concurrent requests together: one JDBC batch per table in one
+ * transaction every payments.create.batch.window-ms or batch.max-size payments.</li>
+ * <li>Once committed, the status cache is written through and then the ProcessPaymentJob is
+ * enqueued in a single Redis pipeline.</li>
+ * </ol>
+ * Errors surface as they did on the synchronous path: authentication first, then a stored
+ * response for a repeated Idempotency-Key, then request validation. A request that loses the race
+ * to insert the same Idempotency-Key replays the winner's stored response. As before, a Redis failure
+ * after the insert has committed fails the request but leaves the payment pending.
+ */
+@Service
+@ConditionalOnRole(GatewayRole.API)
+public class PaymentCreationPipeline {
+
+    private static final String INSERT_PAYMENT = "INSERT INTO payments (id, order_id, merchant_id, amount, "
+            + "currency, method, status, vpa, card_network, card_last4, error_code, error_description, captured, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_IDEMPOTENCY_KEY = "INSERT INTO idempotency_keys "
+            + "(id, key, merchant_id, response, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private record PendingPayment(Payment payment, IdempotencyKey idempotencyKey) {
+    }
+
+    private final AuthenticationService authenticationService;
+    private final OrderRepository orderRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final PaymentService paymentService;
+    private final IDGeneratorService idGeneratorService;
+    private final JobServiceImpl jobService;
+    private final PaymentStatusCache paymentStatusCache;
+    private final JsonCodecs jsonCodecs;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final MicroBatcher<PendingPayment> inserts;
+
+    public PaymentCreationPipeline(
+            AuthenticationService authenticationService,
+            OrderRepository orderRepository,
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            PaymentService paymentService,
+            IDGeneratorService idGeneratorService,
+            JobServiceImpl jobService,
+            PaymentStatusCache paymentStatusCache,
+            JsonCodecs jsonCodecs,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${payments.create.threads:16}") int threads,
+            @Value("${payments.create.batch.window-ms:1}") long batchWindowMillis,
+            @Value("${payments.create.batch.max-size:64}") int batchMaxSize,
+            @Value("${payments.create.batch.queue-capacity:4096}") int batchQueueCapacity) {
+        this.authenticationService = authenticationService;
+        this.orderRepository = orderRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.paymentService = paymentService;
+        this.idGeneratorService = idGeneratorService;
+        this.jobService = jobService;
+        this.paymentStatusCache = paymentStatusCache;
+        this.jsonCodecs = jsonCodecs;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-create-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.inserts = new MicroBatcher<>("payment-insert", batchMaxSize, Duration.ofMillis(batchWindowMillis),
+                batchQueueCapacity, this::insert, meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        inserts.close();
+        executor.shutdown();
+    }
+
+    /**
+     * Body of the 201 response: the new payment, or the stored response for a repeated
+     * Idempotency-Key. Fails with IllegalArgumentException("CODE|Description") like the services.
+     */
+    public CompletableFuture<Object> create(String apiKey, String apiSecret, String idempotencyKey,
+            CreatePaymentRequest request) {
+        boolean idempotent = idempotencyKey != null && !idempotencyKey.isEmpty();
+        String orderId = request.getOrderId();
+
+        CompletableFuture<Merchant> merchant = CompletableFuture.supplyAsync(
+                () -> authenticationService.authenticateMerchant(apiKey, apiSecret), executor);
+        CompletableFuture<Optional<IdempotencyKey>> storedKey = idempotent
+                ? CompletableFuture.supplyAsync(
+                        () -> idempotencyKeyRepository.findByKeyAndMerchantApiKey(idempotencyKey, apiKey), executor)
+                : CompletableFuture.completedFuture(Optional.empty());
+        CompletableFuture<Optional<Order>> order = orderId != null && !orderId.isEmpty()
+                ? CompletableFuture.supplyAsync(() -> orderRepository.findById(orderId), executor)
+                : CompletableFuture.completedFuture(Optional.empty());
+
+        // Composed from merchant outwards so that an authentication failure wins over the others
+        return merchant
+                .thenCompose(authenticated -> storedKey.thenCombineAsync(order,
+                        (key, loaded) -> admit(authenticated, key, loaded, idempotencyKey, request), executor))
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<Object> admit(Merchant merchant, Optional<IdempotencyKey> storedKey,
+            Optional<Order> order, String idempotencyKey, CreatePaymentRequest request) {
+        if (storedKey.isPresent()) {
+            IdempotencyKey keyRecord = storedKey.get();
+            if (keyRecord.getExpiresAt().isAfter(OffsetDateTime.now())) {
+                return CompletableFuture.completedFuture(keyRecord.getResponse());
+            }
+            // Expired; it must be gone before the new row for the same key is inserted
+            idempotencyKeyRepository.delete(keyRecord);
+        }
+
+        if (request.getOrderId() == null || request.getOrderId().isEmpty()) {
+            throw new IllegalArgumentException("BAD_REQUEST_ERROR|order_id is required");
+        }
+        if (request.getMethod() == null || request.getMethod().isEmpty()) {
+            throw new IllegalArgumentException("BAD_REQUEST_ERROR|method is required");
+        }
+        Order loaded = order.orElseThrow(() -> new IllegalArgumentException("NOT_FOUND_ERROR|Order not found"));
+
+        Payment payment = paymentService.newPendingPayment(merchant, loaded, idGeneratorService.newPaymentId(),
+                request.getMethod(), request.getVpa());
+        PaymentResponse response = PaymentResponse.from(payment);
+
+        IdempotencyKey keyRecord = null;
+        if (idempotencyKey != null && !idempotencyKey.isEmpty()) {
+            OffsetDateTime now = OffsetDateTime.now();
+            keyRecord = new IdempotencyKey(idempotencyKey, merchant, jsonCodecs.valueToTree(response), now,
+                    now.plusHours(24));
+        }
+
+        return inserts.submit(new PendingPayment(payment, keyRecord))
+                .<Object>thenApplyAsync(inserted -> {
+                    // Cache first: once the job is queued a fast worker may write the outcome, which
+                    // a later put of the pending payment would overwrite
+                    paymentStatusCache.putPayment(payment);
+                    String jobId = "job_" + idGeneratorService.generateRandomString(12);
+                    jobService.enqueueJob(JobConstants.PAYMENT_QUEUE, new ProcessPaymentJob(jobId, payment.getId()), jobId);
+                    return response;
+                }, executor)
+                .exceptionallyComposeAsync(failure -> replayConcurrentRequest(failure, merchant, idempotencyKey),
+                        executor);
+    }
+
+    /**
+     * A concurrent request with the same Idempotency-Key inserted its key row first, so ours hit the
+     * unique (merchant_id, key) index; answer with the response that request stored, as a repeat
+     * would get. Nothing of ours was committed: the key row shares the payment's transaction.
+     */
+    private CompletableFuture<Object> replayConcurrentRequest(Throwable failure, Merchant merchant,
+            String idempotencyKey) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof DuplicateKeyException && idempotencyKey != null && !idempotencyKey.isEmpty()) {
+            Optional<IdempotencyKey> stored = idempotencyKeyRepository.findValidByKeyAndMerchant(idempotencyKey,
+                    merchant.getId(), OffsetDateTime.now());
+            if (stored.isPresent()) {
+                return CompletableFuture.completedFuture(stored.get().getResponse());
+            }
+        }
+        return CompletableFuture.failedFuture(cause);
+    }
+
+    private void insert(List<PendingPayment> batch) {
+        List<PendingPayment> keyed = batch.stream().filter(pending -> pending.idempotencyKey() != null).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_PAYMENT, batch, batch.size(),
+                    (statement, pending) -> bindPayment(statement, pending.payment()));
+            if (!keyed.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_IDEMPOTENCY_KEY, keyed, keyed.size(),
+                        (statement, pending) -> bindIdempotencyKey(statement, pending.idempotencyKey()));
+            }
+        });
+    }
+
+    private static void bindPayment(PreparedStatement statement, Payment payment) throws SQLException {
+        statement.setString(1, payment.getId());
+        statement.setString(2, payment.getOrder().getId());
+        statement.setObject(3, payment.getMerchant().getId());
+        statement.setInt(4, payment.getAmount());
+        statement.setString(5, payment.getCurrency());
+        statement.setString(6, payment.getMethod().name());
+        statement.setString(7, payment.getStatus().getToken());
+        statement.setString(8, payment.getVpa());
+        statement.setString(9, payment.getCardNetwork() != null ? payment.getCardNetwork().name() : null);
+        statement.setString(10, payment.getCardLast4());
+        statement.setString(11, payment.getErrorCode());
+        statement.setString(12, payment.getErrorDescription());
+        statement.setBoolean(13, Boolean.TRUE.equals(payment.getCaptured()));
+        statement.setObject(14, payment.getCreatedAt(), Types.TIMESTAMP_WITH_TIMEZONE);
+        statement.setObject(15, payment.getUpdatedAt(), Types.TIMESTAMP_WITH_TIMEZONE);
+    }
+
+    private static void bindIdempotencyKey(PreparedStatement statement, IdempotencyKey keyRecord) throws SQLException {
+        statement.setObject(1, UUID.randomUUID());
+        statement.setString(2, keyRecord.getKey());
+        statement.setObject(3, keyRecord.getMerchant().getId());
+        // Bound as text; stringtype=unspecified lets the server take it as jsonb
+        statement.setString(4, keyRecord.getResponse().toString());
+        statement.setObject(5, keyRecord.getCreatedAt(), Types.TIMESTAMP_WITH_TIMEZONE);
+        statement.setObject(6, keyRecord.getExpiresAt(), Types.TIMESTAMP_WITH_TIMEZONE);
+    }
+}
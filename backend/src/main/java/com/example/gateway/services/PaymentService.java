@@ -1,10 +1,10 @@
 package com.example.gateway.services;
 
-import com.example.gateway.models.CardNetwork;
 import com.example.gateway.models.PaymentMethod;
 import com.example.gateway.models.Merchant;
 import com.example.gateway.models.Order;
 import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
 import com.example.gateway.repositories.MerchantRepository;
 import com.example.gateway.repositories.OrderRepository;
 import com.example.gateway.repositories.PaymentRepository;
@@ -22,6 +22,8 @@ public class PaymentService {
     private final OrderRepository orderRepository;
     private final PaymentRepository paymentRepository;
     private final ValidationService validationService;
+    private final ReplicaReads replicaReads;
+    private final PaymentStatusCache paymentStatusCache;
 
     @Value("${TEST_MODE:false}")
     private boolean testMode;
@@ -48,11 +50,15 @@ public class PaymentService {
             MerchantRepository merchantRepository,
             OrderRepository orderRepository,
             PaymentRepository paymentRepository,
-            ValidationService validationService) {
+            ValidationService validationService,
+            ReplicaReads replicaReads,
+            PaymentStatusCache paymentStatusCache) {
         this.merchantRepository = merchantRepository;
         this.orderRepository = orderRepository;
         this.paymentRepository = paymentRepository;
         this.validationService = validationService;
+        this.replicaReads = replicaReads;
+        this.paymentStatusCache = paymentStatusCache;
     }
 
     /**
@@ -128,7 +134,9 @@ public class PaymentService {
                 throw new IllegalArgumentException("BAD_REQUEST_ERROR|Card number is required");
             }
 
-            if (!validationService.validateCardNumber(cardNumber)) {
+            // Single pass over the number for validity, network and last 4
+            CardInspection card = validationService.inspectCard(cardNumber);
+            if (!card.isValid()) {
                 throw new IllegalArgumentException("INVALID_CARD|Invalid card number");
             }
 
@@ -152,22 +160,21 @@ public class PaymentService {
             payment.setMethod(paymentMethod);
 
             // Detect card network
-            CardNetwork network = validationService.getCardNetwork(cardNumber);
-            payment.setCardNetwork(network);
+            payment.setCardNetwork(card.getNetwork());
 
             // Store only last 4 digits (NEVER store full card number or CVV)
-            String last4 = validationService.getCardLast4(cardNumber);
-            payment.setCardLast4(last4);
+            payment.setCardLast4(card.getLast4());
 
         } else {
             throw new IllegalArgumentException("BAD_REQUEST_ERROR|Invalid payment method. Use 'upi' or 'card'");
         }
 
         // 4. Create payment with "processing" status immediately (NOT "created")
-        payment.setStatus("processing");
+        payment.setStatus(PaymentStatus.PROCESSING);
 
         // 5. Save to database
         Payment savedPayment = paymentRepository.save(payment);
+        paymentStatusCache.putPayment(savedPayment);
 
         // 6. Process asynchronously in a separate thread
         new Thread(() -> processPaymentAsync(savedPayment, paymentMethod)).start();
@@ -247,15 +254,16 @@ public class PaymentService {
         payment.setUpdatedAt(OffsetDateTime.now());
 
         if (isSuccessful) {
-            payment.setStatus("success");
+            payment.transitionTo(PaymentStatus.SUCCESS);
         } else {
-            payment.setStatus("failed");
+            payment.transitionTo(PaymentStatus.FAILED);
             // Set error details for failed payment
             payment.setErrorCode("PAYMENT_FAILED");
             payment.setErrorDescription("Payment processing failed. Please try again.");
         }
 
         paymentRepository.save(payment);
+        paymentStatusCache.putPayment(payment);
     }
 
     /**
@@ -274,7 +282,7 @@ public class PaymentService {
      * Get payment by ID
      */
     public Payment getPayment(String paymentId) {
-        return paymentRepository.findById(paymentId)
+        return replicaReads.findById(() -> paymentRepository.findById(paymentId))
                 .orElseThrow(() -> new IllegalArgumentException("NOT_FOUND_ERROR|Payment not found"));
     }
 
@@ -305,13 +313,20 @@ public class PaymentService {
      * Create payment record with pending status for async processing
      */
     public Payment createPaymentAsync(Merchant merchant, String paymentId, String orderId, String method, String vpa) {
-        // Verify order exists and belongs to merchant
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-        if (orderOpt.isEmpty()) {
-            throw new IllegalArgumentException("NOT_FOUND_ERROR|Order not found");
-        }
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("NOT_FOUND_ERROR|Order not found"));
 
-        Order order = orderOpt.get();
+        Payment payment = newPendingPayment(merchant, order, paymentId, method, vpa);
+        Payment savedPayment = paymentRepository.save(payment);
+        paymentStatusCache.putPayment(savedPayment);
+        return savedPayment;
+    }
+
+    /**
+     * Validated, unsaved payment with pending status for an order the caller has already loaded
+     */
+    public Payment newPendingPayment(Merchant merchant, Order order, String paymentId, String method, String vpa) {
+        // Verify order belongs to merchant
         if (!order.getMerchant().getId().equals(merchant.getId())) {
             throw new IllegalArgumentException("BAD_REQUEST_ERROR|Order does not belong to this merchant");
         }
@@ -345,7 +360,7 @@ public class PaymentService {
             throw new IllegalArgumentException("BAD_REQUEST_ERROR|Invalid payment method. Use 'upi' or 'card'");
         }
 
-        payment.setStatus("pending");
-        return paymentRepository.save(payment);
+        payment.setStatus(PaymentStatus.PENDING);
+        return payment;
     }
 }
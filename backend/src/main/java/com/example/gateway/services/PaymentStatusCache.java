@@ -0,0 +1,162 @@
+package com.example.gateway.services;
+
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.dto.PaymentResponse;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serialized public views of payments and orders, for the endpoints checkout polls every second.
+ *
+ * Redis (status:payment:&lt;id&gt;, status:order:&lt;id&gt;) is shared by all nodes and written through
+ * whenever a payment is saved. In front of it each node keeps a small in-process cache for
+ * status-cache.near.ttl-ms, which bounds how long another node's update can take to show up.
+ * Entries expire after status-cache.ttl-seconds, or status-cache.terminal-ttl-seconds once the
+ * payment has succeeded or failed and polling is about to stop.
+ *
+ * Views are stored as the JSON the endpoint returns, so a hit is served without touching the
+ * database or Jackson. A miss loads from the database and only fills Redis if nothing is there
+ * yet, so a read from a lagging replica cannot overwrite a newer status. Redis errors are logged
+ * and treated as misses.
+ */
+@Service
+public class PaymentStatusCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStatusCache.class);
+
+    private static final String PAYMENT_KEY_PREFIX = "status:payment:";
+    private static final String ORDER_KEY_PREFIX = "status:order:";
+
+
+    private final StringRedisTemplate redisTemplate;
+    private final JsonCodecs jsonCodecs;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration terminalTtl;
+    private final Cache<String, String> near;
+    private final Counter nearHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public PaymentStatusCache(
+            StringRedisTemplate redisTemplate,
+            JsonCodecs jsonCodecs,
+            MeterRegistry meterRegistry,
+            @Value("${status-cache.enabled:true}") boolean enabled,
+            @Value("${status-cache.ttl-seconds:900}") long ttlSeconds,
+            @Value("${status-cache.terminal-ttl-seconds:120}") long terminalTtlSeconds,
+            @Value("${status-cache.near.ttl-ms:1000}") long nearTtlMillis,
+            @Value("${status-cache.near.max-entries:10000}") long nearMaxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.jsonCodecs = jsonCodecs;
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.terminalTtl = Duration.ofSeconds(terminalTtlSeconds);
+        this.near = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(nearTtlMillis))
+                .maximumSize(nearMaxEntries)
+                .build();
+        this.nearHits = lookups(meterRegistry, "near");
+        this.redisHits = lookups(meterRegistry, "redis");
+        this.misses = lookups(meterRegistry, "miss");
+    }
+
+    /**
+     * JSON of the payment's public view, loading it with the given supplier on a miss.
+     * Exceptions from the loader (not found) propagate and nothing is cached.
+     */
+    public String getPayment(String paymentId, Supplier<PaymentResponse> loader) {
+        return get(PAYMENT_KEY_PREFIX + paymentId, () -> {
+            PaymentResponse view = loader.get();
+            return new Entry(serialize(view), ttlFor(PaymentStatus.fromToken(view.getStatus())));
+        });
+    }
+
+    public String getOrder(String orderId, Supplier<Object> loader) {
+        return get(ORDER_KEY_PREFIX + orderId, () -> new Entry(serialize(loader.get()), ttl));
+    }
+
+    /**
+     * Write-through after a payment is saved. Call it once the save has committed.
+     */
+    public void putPayment(Payment payment) {
+        if (!enabled) {
+            return;
+        }
+        String key = PAYMENT_KEY_PREFIX + payment.getId();
+        try {
+            String json = serialize(PaymentResponse.from(payment));
+            near.put(key, json);
+            redisTemplate.opsForValue().set(key, json, ttlFor(payment.getStatus()));
+        } catch (RuntimeException e) {
+            // Leave no stale copy on this node; other nodes catch up when the Redis entry expires
+            near.invalidate(key);
+            logger.warn("Failed to update status cache for payment {}: {}", payment.getId(), e.getMessage());
+        }
+    }
+
+    private String get(String key, Supplier<Entry> loader) {
+        if (!enabled) {
+            return loader.get().json();
+        }
+        String json = near.getIfPresent(key);
+        if (json != null) {
+            nearHits.increment();
+            return json;
+        }
+        try {
+            json = redisTemplate.opsForValue().get(key);
+        } catch (RuntimeException e) {
+            logger.debug("Status cache read failed for {}: {}", key, e.getMessage());
+        }
+        if (json != null) {
+            redisHits.increment();
+            near.put(key, json);
+            return json;
+        }
+        misses.increment();
+        Entry entry = loader.get();
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, entry.json(), entry.ttl()))) {
+                near.put(key, entry.json());
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Status cache fill failed for {}: {}", key, e.getMessage());
+        }
+        return entry.json();
+    }
+
+    private Duration ttlFor(PaymentStatus status) {
+        return status.isTerminal() ? terminalTtl : ttl;
+    }
+
+    private String serialize(Object view) {
+        try {
+            return jsonCodecs.write(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize status view", e);
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.status_cache.lookups")
+                .description("Public status lookups by where they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(String json, Duration ttl) {
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.gateway.services;
 
-import java.util.List;
 import java.util.Optional;
 import org.springframework.stereotype.Service;
 import com.example.gateway.models.Merchant;
 import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
 import com.example.gateway.models.Refund;
 import com.example.gateway.repositories.MerchantRepository;
 import com.example.gateway.repositories.PaymentRepository;
 import com.example.gateway.repositories.RefundRepository;
+import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobPriority;
 import com.example.gateway.jobs.JobServiceImpl;
 import com.example.gateway.jobs.ProcessRefundJob;
 
@@ -48,7 +50,7 @@ public class RefundService {
         Payment payment = paymentOpt.get();
         
         // Validate payment status is success
-        if (!"success".equals(payment.getStatus())) {
+        if (payment.getStatus() != PaymentStatus.SUCCESS) {
             throw new IllegalArgumentException("Can only refund successful payments");
         }
         
@@ -74,7 +76,7 @@ public class RefundService {
         // Enqueue refund processing job
         String jobId = "job_" + System.currentTimeMillis();
         ProcessRefundJob job = new ProcessRefundJob(jobId, savedRefund.getId());
-        jobService.enqueueJob("process_refund", job, jobId);
+        jobService.enqueueJob(JobConstants.REFUND_QUEUE, JobPriority.HIGH, payment.getId(), job, jobId);
         
         return savedRefund;
     }
@@ -107,12 +109,6 @@ public class RefundService {
         }
         
         Payment payment = paymentOpt.get();
-        List<Refund> refunds = refundRepository.findByPaymentId(paymentId);
-        
-        long refundedAmount = refunds.stream()
-                .map(Refund::getAmount)
-                .reduce(0L, Long::sum);
-        
-        return payment.getAmount() - refundedAmount;
+        return payment.getAmount() - refundRepository.sumActiveRefundAmount(paymentId);
     }
 }
@@ -0,0 +1,48 @@
+package com.example.gateway.services;
+
+import com.example.gateway.config.ReplicaRoutingDataSource;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs endpoint reads in a read-only transaction that may be served by the replica
+ * (datasource.replica.enabled, see ReplicaDataSourceConfig). Without a replica these are
+ * ordinary read-only transactions on the primary.
+ *
+ * Only use this for data returned to the caller as-is; anything read in order to write it back
+ * must come from the primary.
+ */
+@Service
+public class ReplicaReads {
+
+    private final TransactionTemplate readOnly;
+    private final boolean replicaEnabled;
+
+    public ReplicaReads(
+            PlatformTransactionManager transactionManager,
+            @Value("${datasource.replica.enabled:false}") boolean replicaEnabled) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.replicaEnabled = replicaEnabled;
+    }
+
+    public <T> T read(Supplier<T> query) {
+        return ReplicaRoutingDataSource.preferReplica(() -> readOnly.execute(status -> query.get()));
+    }
+
+    /**
+     * Like {@link #read}, but a miss on the replica is repeated on the primary: a row created
+     * moments ago (a payment polled right after it was created) may not have been replayed yet.
+     */
+    public <T> Optional<T> findById(Supplier<Optional<T>> query) {
+        Optional<T> result = read(query);
+        if (result.isEmpty() && replicaEnabled) {
+            return readOnly.execute(status -> query.get());
+        }
+        return result;
+    }
+}
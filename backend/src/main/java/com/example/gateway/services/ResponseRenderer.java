@@ -0,0 +1,75 @@
+package com.example.gateway.services;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.dto.PaymentResponse;
+import com.example.gateway.dto.RefundResponse;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.Refund;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Renders payment and refund responses to JSON bytes for the authenticated GET endpoints.
+ *
+ * Serialization uses writers bound to the response type, so Jackson resolves the serializer once.
+ * Rendered bytes of finished payments and refunds are kept in memory (response-cache.max-entries).
+ * A finished payment can still be captured, so its entry is keyed by id plus updated_at: a save
+ * produces a new key and the old entry just ages out. A refund does not change once it is processed
+ * or failed.
+ */
+@Service
+@ConditionalOnRole(GatewayRole.API)
+public class ResponseRenderer {
+
+    private static final Set<String> TERMINAL_REFUND_STATUSES = Set.of("processed", "failed");
+
+    private final ObjectWriter paymentWriter;
+    private final ObjectWriter refundWriter;
+    private final Cache<RenderKey, byte[]> rendered;
+
+    public ResponseRenderer(
+            ObjectMapper objectMapper,
+            @Value("${response-cache.max-entries:10000}") long maxEntries) {
+        this.paymentWriter = objectMapper.writerFor(PaymentResponse.class);
+        this.refundWriter = objectMapper.writerFor(RefundResponse.class);
+        this.rendered = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public byte[] renderPayment(Payment payment) {
+        if (!payment.getStatus().isTerminal()) {
+            return write(paymentWriter, PaymentResponse.from(payment));
+        }
+        return rendered.get(new RenderKey(payment.getId(), payment.getStatus().getToken(), payment.getUpdatedAt()),
+                key -> write(paymentWriter, PaymentResponse.from(payment)));
+    }
+
+    public byte[] renderRefund(Refund refund) {
+        if (!TERMINAL_REFUND_STATUSES.contains(refund.getStatus())) {
+            return write(refundWriter, RefundResponse.from(refund));
+        }
+        return rendered.get(new RenderKey(refund.getId(), refund.getStatus(), refund.getProcessedAt()),
+                key -> write(refundWriter, RefundResponse.from(refund)));
+    }
+
+    private static byte[] write(ObjectWriter writer, Object response) {
+        try {
+            return writer.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render response", e);
+        }
+    }
+
+    // Payment and refund ids have distinct prefixes, so one cache holds both
+    private record RenderKey(String id, String status, OffsetDateTime version) {
+    }
+}
@@ -14,6 +14,12 @@ public class ValidationService {
     private static final Pattern VPA_PATTERN = Pattern.compile("^[a-zA-Z0-9._-]+@[a-zA-Z0-9]+$");
     private static final Pattern HTTP_SCHEME_PATTERN = Pattern.compile("^https?$");
 
+    private final BinRangeRegistry binRangeRegistry;
+
+    public ValidationService(BinRangeRegistry binRangeRegistry) {
+        this.binRangeRegistry = binRangeRegistry;
+    }
+
     /**
      * Validate VPA (Virtual Payment Address) format for UPI
      * Pattern: username@provider
@@ -27,6 +33,14 @@ public class ValidationService {
         return VPA_PATTERN.matcher(vpa).matches();
     }
 
+    /**
+     * Inspect a card number in one pass: digits-only check, length, Luhn, network and last 4.
+     * Use this when more than one of those is needed for the same number.
+     */
+    public CardInspection inspectCard(CharSequence cardNumber) {
+        return CardInspector.inspect(cardNumber, binRangeRegistry.getTable());
+    }
+
     /**
      * Validate card number using Luhn Algorithm
      * Steps:
@@ -40,99 +54,21 @@ public class ValidationService {
      *    - Valid if sum % 10 == 0
      */
     public boolean validateCardNumber(String cardNumber) {
-        if (cardNumber == null || cardNumber.trim().isEmpty()) {
-            return false;
-        }
-
-        // Remove spaces and dashes
-        String cleanedNumber = cardNumber.replaceAll("[\\s-]", "");
-
-        // Check if all characters are digits
-        if (!cleanedNumber.matches("\\d+")) {
-            return false;
-        }
-
-        // Check length (13-19 digits)
-        if (cleanedNumber.length() < 13 || cleanedNumber.length() > 19) {
-            return false;
-        }
-
-        // Apply Luhn algorithm
-        return isValidLuhn(cleanedNumber);
-    }
-
-    /**
-     * Luhn algorithm implementation
-     */
-    private boolean isValidLuhn(String cardNumber) {
-        int sum = 0;
-        boolean isEvenPosition = false;
-
-        // Process digits from right to left
-        for (int i = cardNumber.length() - 1; i >= 0; i--) {
-            int digit = Character.getNumericValue(cardNumber.charAt(i));
-
-            // Double every 2nd digit from the right (even positions)
-            if (isEvenPosition) {
-                digit *= 2;
-                // If result > 9, subtract 9
-                if (digit > 9) {
-                    digit -= 9;
-                }
-            }
-
-            sum += digit;
-            isEvenPosition = !isEvenPosition;
-        }
-
-        // Valid if sum is divisible by 10
-        return sum % 10 == 0;
+        return CardInspector.inspect(cardNumber, binRangeRegistry.getTable()).isValid();
     }
 
     /**
-     * Detect card network from card number
+     * Detect card network from card number using the BIN ranges in bin-ranges.csv
+     * (8-digit BINs, the narrowest matching range wins), e.g.
      * Visa: starts with 4
-     * Mastercard: starts with 51-55
+     * Mastercard: 51-55 or 2221-2720
      * Amex: starts with 34 or 37
-     * RuPay: starts with 60, 65, or 81-89
+     * RuPay: 60, 65, 81-89, 353, 356, 508500-508999
+     * Discover: 6011, 644-649; Diners: 300-305, 36, 38-39; Maestro: 5018, 5020, 5038, 5893, 6304, 6759, 6761-6763
      * Unknown: no match
      */
     public CardNetwork getCardNetwork(String cardNumber) {
-        if (cardNumber == null || cardNumber.trim().isEmpty()) {
-            return CardNetwork.UNKNOWN;
-        }
-
-        String cleaned = cardNumber.replaceAll("[\\s-]", "");
-
-        if (cleaned.isEmpty()) {
-            return CardNetwork.UNKNOWN;
-        }
-
-        // Check first digit/digits
-        if (cleaned.startsWith("4")) {
-            return CardNetwork.VISA;
-        } else if (cleaned.startsWith("51") || cleaned.startsWith("52") || 
-                   cleaned.startsWith("53") || cleaned.startsWith("54") || 
-                   cleaned.startsWith("55")) {
-            return CardNetwork.MASTERCARD;
-        } else if (cleaned.startsWith("34") || cleaned.startsWith("37")) {
-            return CardNetwork.AMEX;
-        } else if (cleaned.startsWith("60") || cleaned.startsWith("65")) {
-            return CardNetwork.RUPAY;
-        } else if (cleaned.length() >= 2) {
-            // Check for RuPay 81-89 range
-            String firstTwo = cleaned.substring(0, 2);
-            try {
-                int firstTwoDigits = Integer.parseInt(firstTwo);
-                if (firstTwoDigits >= 81 && firstTwoDigits <= 89) {
-                    return CardNetwork.RUPAY;
-                }
-            } catch (NumberFormatException e) {
-                // Continue to UNKNOWN
-            }
-        }
-
-        return CardNetwork.UNKNOWN;
+        return CardInspector.inspect(cardNumber, binRangeRegistry.getTable()).getNetwork();
     }
 
     /**
@@ -188,17 +124,7 @@ public class ValidationService {
      * Helper method to extract last 4 digits of card number
      */
     public String getCardLast4(String cardNumber) {
-        if (cardNumber == null || cardNumber.isEmpty()) {
-            return null;
-        }
-
-        String cleaned = cardNumber.replaceAll("[\\s-]", "");
-
-        if (cleaned.length() < 4) {
-            return null;
-        }
-
-        return cleaned.substring(cleaned.length() - 4);
+        return CardInspector.inspect(cardNumber, binRangeRegistry.getTable()).getLast4();
     }
 
     /**
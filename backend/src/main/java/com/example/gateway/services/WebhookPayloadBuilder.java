@@ -1,8 +1,8 @@
 package com.example.gateway.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.example.gateway.config.JsonCodecs;
 import com.example.gateway.models.Payment;
 import com.example.gateway.models.Refund;
 import org.slf4j.Logger;
@@ -14,18 +14,23 @@ import java.time.Instant;
 public class WebhookPayloadBuilder {
     
     private static final Logger logger = LoggerFactory.getLogger(WebhookPayloadBuilder.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final JsonCodecs jsonCodecs;
+    
+    public WebhookPayloadBuilder(JsonCodecs jsonCodecs) {
+        this.jsonCodecs = jsonCodecs;
+    }
     
     /**
      * Build webhook payload for payment event
      */
     public JsonNode buildPaymentPayload(String event, Payment payment) {
-        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode root = jsonCodecs.createObjectNode();
         
         root.put("event", event);
         root.put("timestamp", Instant.now().getEpochSecond());
         
-        ObjectNode data = objectMapper.createObjectNode();
+        ObjectNode data = jsonCodecs.createObjectNode();
         ObjectNode paymentNode = buildPaymentNode(payment);
         data.set("payment", paymentNode);
         
@@ -39,12 +44,12 @@ public class WebhookPayloadBuilder {
      * Build webhook payload for refund event
      */
     public JsonNode buildRefundPayload(String event, Refund refund) {
-        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode root = jsonCodecs.createObjectNode();
         
         root.put("event", event);
         root.put("timestamp", Instant.now().getEpochSecond());
         
-        ObjectNode data = objectMapper.createObjectNode();
+        ObjectNode data = jsonCodecs.createObjectNode();
         ObjectNode refundNode = buildRefundNode(refund);
         data.set("refund", refundNode);
         
@@ -58,7 +63,7 @@ public class WebhookPayloadBuilder {
      * Build payment object node for payload
      */
     private ObjectNode buildPaymentNode(Payment payment) {
-        ObjectNode node = objectMapper.createObjectNode();
+        ObjectNode node = jsonCodecs.createObjectNode();
         
         node.put("id", payment.getId());
         node.put("order_id", payment.getOrder() != null ? payment.getOrder().getId() : null);
@@ -78,7 +83,7 @@ public class WebhookPayloadBuilder {
             node.put("card_last4", payment.getCardLast4());
         }
         
-        node.put("status", payment.getStatus());
+        node.put("status", payment.getStatus().getToken());
         node.put("captured", payment.getCaptured());
         
         if (payment.getCreatedAt() != null) {
@@ -104,7 +109,7 @@ public class WebhookPayloadBuilder {
      * Build refund object node for payload
      */
     private ObjectNode buildRefundNode(Refund refund) {
-        ObjectNode node = objectMapper.createObjectNode();
+        ObjectNode node = jsonCodecs.createObjectNode();
         
         node.put("id", refund.getId());
         node.put("payment_id", refund.getPayment() != null ? refund.getPayment().getId() : null);
@@ -5,6 +5,7 @@ import com.example.gateway.jobs.JobConstants;
 import com.example.gateway.jobs.JobServiceImpl;
 import com.example.gateway.models.Merchant;
 import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
 import com.example.gateway.models.Refund;
 import com.example.gateway.models.WebhookLog;
 import com.example.gateway.repositories.MerchantRepository;
@@ -16,6 +17,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -53,9 +58,10 @@ public class WebhookServiceImpl implements WebhookService {
                 return;
             }
             
-            // Create webhook log entry
+            // Create webhook log entry, keyed by the delivery job id so the worker finds it
+            String jobId = "wh_" + UUID.randomUUID().toString().substring(0, 16);
             WebhookLog webhookLog = new WebhookLog();
-            webhookLog.setId(UUID.randomUUID().toString());
+            webhookLog.setId(jobId);
             webhookLog.setEvent(event);
             webhookLog.setPayload(payload);
             webhookLog.setStatus(JobConstants.JOB_STATUS_PENDING);
@@ -77,7 +83,6 @@ public class WebhookServiceImpl implements WebhookService {
             logger.info("Created webhook log: {} for event: {} and merchant: {}", webhookLog.getId(), event, merchantId);
             
             // Create and enqueue delivery job
-            String jobId = "wh_" + UUID.randomUUID().toString().substring(0, 16);
             DeliverWebhookJob job = new DeliverWebhookJob(jobId, merchantId, event, payload);
             
             jobService.enqueueJob(JobConstants.WEBHOOK_QUEUE, job, jobId);
@@ -91,9 +96,10 @@ public class WebhookServiceImpl implements WebhookService {
     @Override
     public String enqueueCustomWebhook(UUID merchantId, String event, JsonNode payload) {
         try {
-            // Create webhook log entry
+            // Create webhook log entry, keyed by the delivery job id so the worker finds it
+            String jobId = "wh_" + UUID.randomUUID().toString().substring(0, 16);
             WebhookLog webhookLog = new WebhookLog();
-            webhookLog.setId(UUID.randomUUID().toString());
+            webhookLog.setId(jobId);
             webhookLog.setEvent(event);
             webhookLog.setPayload(payload);
             webhookLog.setStatus(JobConstants.JOB_STATUS_PENDING);
@@ -114,7 +120,6 @@ public class WebhookServiceImpl implements WebhookService {
             webhookLogRepository.save(webhookLog);
 
             // Create and enqueue delivery job
-            String jobId = "wh_" + UUID.randomUUID().toString().substring(0, 16);
             DeliverWebhookJob job = new DeliverWebhookJob(jobId, merchantId, event, payload);
             jobService.enqueueJob(JobConstants.WEBHOOK_QUEUE, job, jobId);
 
@@ -125,6 +130,37 @@ public class WebhookServiceImpl implements WebhookService {
         }
     }
     
+    /**
+     * Webhook logs for the outcomes of the given payments (payment.success or payment.failed, by
+     * status), saved in the caller's transaction. The delivery jobs are returned by job id rather
+     * than enqueued, so the caller can enqueue them together once its transaction has committed.
+     */
+    public Map<String, DeliverWebhookJob> savePaymentOutcomeWebhookLogs(List<Payment> payments) {
+        Map<String, DeliverWebhookJob> jobs = new LinkedHashMap<>();
+        List<WebhookLog> webhookLogs = new ArrayList<>(payments.size());
+        OffsetDateTime now = OffsetDateTime.now();
+        for (Payment payment : payments) {
+            String event = payment.getStatus() == PaymentStatus.SUCCESS ? "payment.success" : "payment.failed";
+            JsonNode payload = payloadBuilder.buildPaymentPayload(event, payment);
+            String jobId = "wh_" + UUID.randomUUID().toString().substring(0, 16);
+
+            WebhookLog webhookLog = new WebhookLog();
+            webhookLog.setId(jobId);
+            webhookLog.setEvent(event);
+            webhookLog.setPayload(payload);
+            webhookLog.setStatus(JobConstants.JOB_STATUS_PENDING);
+            webhookLog.setAttempts(0);
+            webhookLog.setCreatedAt(now);
+            // The payment's merchant exists; the log only needs its id
+            webhookLog.setMerchant(payment.getMerchant());
+            webhookLogs.add(webhookLog);
+
+            jobs.put(jobId, new DeliverWebhookJob(jobId, payment.getMerchant().getId(), event, payload));
+        }
+        webhookLogRepository.saveAll(webhookLogs);
+        return jobs;
+    }
+
     /**
      * Get webhook retry delay based on attempt number
      */
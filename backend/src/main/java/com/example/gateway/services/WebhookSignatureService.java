@@ -1,6 +1,6 @@
 package com.example.gateway.services;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.gateway.config.JsonCodecs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -13,7 +13,12 @@ public class WebhookSignatureService {
     
     private static final Logger logger = LoggerFactory.getLogger(WebhookSignatureService.class);
     private static final String HMAC_SHA256_ALGORITHM = "HmacSHA256";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final JsonCodecs jsonCodecs;
+    
+    public WebhookSignatureService(JsonCodecs jsonCodecs) {
+        this.jsonCodecs = jsonCodecs;
+    }
     
     /**
      * Generate HMAC-SHA256 signature for webhook payload
@@ -28,7 +33,7 @@ public class WebhookSignatureService {
             if (payload instanceof String) {
                 payloadString = (String) payload;
             } else {
-                payloadString = objectMapper.writeValueAsString(payload);
+                payloadString = jsonCodecs.write(payload);
             }
             
             // Generate HMAC-SHA256
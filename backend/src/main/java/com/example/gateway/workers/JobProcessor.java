@@ -1,29 +1,72 @@
 package com.example.gateway.workers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.jobs.DeliverWebhookJob;
+import com.example.gateway.jobs.JobCodec;
 import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobPriority;
+import com.example.gateway.jobs.JobShards;
+import com.example.gateway.jobs.JobShards.Lane;
 import com.example.gateway.jobs.ProcessPaymentJob;
 import com.example.gateway.jobs.ProcessRefundJob;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
-@EnableScheduling
+@ConditionalOnRole(GatewayRole.WORKER)
 public class JobProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(JobProcessor.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    // Max jobs taken from a queue per poll
+    private static final int BATCH_SIZE = 100;
+    
+    // strict or weighted, see processQueue
+    @Value("${jobs.priority.mode:weighted}")
+    private String priorityMode;
+    
+    @Value("${jobs.priority.high-weight:8}")
+    private int highWeight;
     
     @Autowired
     private StringRedisTemplate redisTemplate;
     
+    @Autowired
+    private RedisTemplate<String, byte[]> jobRedisTemplate;
+    
+    @Autowired
+    private JobCodec jobCodec;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private WorkerHeartbeatService heartbeatService;
+    
+    @Autowired
+    private ShardLeaseManager shardLeases;
+    
+    @Autowired
+    private JobShards jobShards;
+    
     @Autowired
     private PaymentWorker paymentWorker;
     
@@ -38,28 +81,7 @@ public class JobProcessor {
      */
     @Scheduled(fixedDelay = 500, initialDelay = 2000)
     public void processPaymentJobs() {
-        try {
-            Set<String> jobIds = redisTemplate.opsForSet().members(JobConstants.PAYMENT_QUEUE);
-            if (jobIds != null && !jobIds.isEmpty()) {
-                for (String jobId : jobIds) {
-                    try {
-                        String jobData = redisTemplate.opsForValue().get("job:" + jobId);
-                        if (jobData != null) {
-                            ProcessPaymentJob job = objectMapper.readValue(jobData, ProcessPaymentJob.class);
-                            logger.debug("Processing payment job: {}", jobId);
-                            paymentWorker.processPayment(job);
-                            // Remove from queue after processing
-                            redisTemplate.opsForSet().remove(JobConstants.PAYMENT_QUEUE, jobId);
-                            redisTemplate.delete("job:" + jobId);
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error processing payment job: {}", jobId, e);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error in payment job processor", e);
-        }
+        processQueue(JobConstants.PAYMENT_QUEUE, ProcessPaymentJob.class, paymentWorker::processPayment);
     }
     
     /**
@@ -67,56 +89,165 @@ public class JobProcessor {
      */
     @Scheduled(fixedDelay = 500, initialDelay = 2500)
     public void processWebhookJobs() {
+        processQueue(JobConstants.WEBHOOK_QUEUE, DeliverWebhookJob.class, webhookWorker::deliverWebhook);
+    }
+    
+    /**
+     * Process refund jobs every 500ms
+     */
+    @Scheduled(fixedDelay = 500, initialDelay = 3000)
+    public void processRefundJobs() {
+        processQueue(JobConstants.REFUND_QUEUE, ProcessRefundJob.class, refundWorker::processRefund);
+    }
+    
+    /**
+     * Take up to BATCH_SIZE of the oldest due jobs from the queue's lanes (sorted sets scored by the
+     * time a job is due: enqueue time, or the retry time after a failure) and hand them to the worker,
+     * one at a time. Only the shards this node holds the lease for are read (see ShardLeaseManager),
+     * and each pick takes the oldest due head across them in one pipelined round trip.
+     * The lane is chosen per job, so a high-priority job queued while low-priority ones drain waits behind
+     * at most the job in progress:
+     * - strict: low-priority jobs only run while the high lane has nothing due
+     * - weighted: after jobs.priority.high-weight high-priority jobs in a row, one low-priority job runs,
+     *   so a steady stream of live work cannot starve retries
+     * Records gateway.jobs.queue.wait (due to pickup) and gateway.jobs.processing (worker time), tagged by lane.
+     */
+    private <T> void processQueue(String queueName, Class<T> jobType, Consumer<T> worker) {
+        Set<Integer> shards = shardLeases.ownedShards();
+        if (shards.isEmpty()) {
+            return;
+        }
+        List<Lane> highLanes = jobShards.lanes(queueName, JobPriority.HIGH, shards);
+        List<Lane> lowLanes = jobShards.lanes(queueName, JobPriority.LOW, shards);
+        boolean weighted = !"strict".equalsIgnoreCase(priorityMode);
         try {
-            Set<String> jobIds = redisTemplate.opsForSet().members(JobConstants.WEBHOOK_QUEUE);
-            if (jobIds != null && !jobIds.isEmpty()) {
-                for (String jobId : jobIds) {
-                    try {
-                        String jobData = redisTemplate.opsForValue().get("job:" + jobId);
-                        if (jobData != null) {
-                            DeliverWebhookJob job = objectMapper.readValue(jobData, DeliverWebhookJob.class);
-                            logger.debug("Processing webhook delivery job: {}", jobId);
-                            webhookWorker.deliverWebhook(job);
-                            // Remove from queue after processing
-                            redisTemplate.opsForSet().remove(JobConstants.WEBHOOK_QUEUE, jobId);
-                            redisTemplate.delete("job:" + jobId);
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error processing webhook job: {}", jobId, e);
-                    }
+            int highStreak = 0;
+            for (int taken = 0; taken < BATCH_SIZE; taken++) {
+                boolean lowTurn = weighted && highStreak >= highWeight;
+                Queued next = oldest(lowTurn ? lowLanes : highLanes);
+                if (next == null) {
+                    next = oldest(lowTurn ? highLanes : lowLanes);
+                }
+                if (next == null) {
+                    return;
+                }
+                int shard = next.lane().shard();
+                if (!shardLeases.begin(shard)) {
+                    // The shard is being handed to another node; pick again with the new set next poll
+                    return;
                 }
+                try {
+                    processJob(queueName, next.lane(), next.job(), jobType, worker);
+                } finally {
+                    shardLeases.finish(shard);
+                }
+                highStreak = highLanes.contains(next.lane()) ? highStreak + 1 : 0;
             }
         } catch (Exception e) {
-            logger.error("Error in webhook job processor", e);
+            logger.error("Error in job processor for queue {}", queueName, e);
         }
     }
     
+    private record Queued(Lane lane, TypedTuple<String> job) {
+    }
+    
     /**
-     * Process refund jobs every 500ms
+     * The oldest due job at the head of any of the lanes, or null if none has one. A head that is
+     * not due yet (a failed job waiting out its backoff) is skipped, not waited for.
      */
-    @Scheduled(fixedDelay = 500, initialDelay = 3000)
-    public void processRefundJobs() {
+    @SuppressWarnings("unchecked")
+    private Queued oldest(List<Lane> lanes) {
+        long now = System.currentTimeMillis();
+        List<Object> heads = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Lane lane : lanes) {
+                connection.zSetCommands().zRangeByScoreWithScores(lane.key().getBytes(StandardCharsets.UTF_8),
+                        Double.NEGATIVE_INFINITY, now, 0, 1);
+            }
+            return null;
+        });
+        Queued oldest = null;
+        for (int i = 0; i < lanes.size(); i++) {
+            if (!(heads.get(i) instanceof Set<?> head) || head.isEmpty()) {
+                continue;
+            }
+            TypedTuple<String> job = (TypedTuple<String>) head.iterator().next();
+            if (oldest == null || score(job) < score(oldest.job())) {
+                oldest = new Queued(lanes.get(i), job);
+            }
+        }
+        return oldest;
+    }
+    
+    private static double score(TypedTuple<String> job) {
+        return job.getScore() != null ? job.getScore() : Double.MAX_VALUE;
+    }
+    
+    /**
+     * A job is removed from its lane once its worker returns, or when its data is gone. A job whose
+     * worker throws stays in its lane and is retried later (see retryLater).
+     */
+    private <T> void processJob(String queueName, Lane lane, TypedTuple<String> queued, Class<T> jobType,
+            Consumer<T> worker) {
+        String jobId = queued.getValue();
+        String jobKey = JobConstants.JOB_DATA_PREFIX + jobId;
+        if (queued.getScore() != null) {
+            long waitMs = System.currentTimeMillis() - queued.getScore().longValue();
+            timer("gateway.jobs.queue.wait", lane.name(), null).record(Duration.ofMillis(Math.max(waitMs, 0)));
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        heartbeatService.jobStarted();
         try {
-            Set<String> jobIds = redisTemplate.opsForSet().members(JobConstants.REFUND_QUEUE);
-            if (jobIds != null && !jobIds.isEmpty()) {
-                for (String jobId : jobIds) {
-                    try {
-                        String jobData = redisTemplate.opsForValue().get("job:" + jobId);
-                        if (jobData != null) {
-                            ProcessRefundJob job = objectMapper.readValue(jobData, ProcessRefundJob.class);
-                            logger.debug("Processing refund job: {}", jobId);
-                            refundWorker.processRefund(job);
-                            // Remove from queue after processing
-                            redisTemplate.opsForSet().remove(JobConstants.REFUND_QUEUE, jobId);
-                            redisTemplate.delete("job:" + jobId);
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error processing refund job: {}", jobId, e);
-                    }
-                }
+            byte[] jobData = jobRedisTemplate.opsForValue().get(jobKey);
+            if (jobData != null) {
+                T job = jobCodec.decode(jobData, jobType);
+                logger.debug("Processing job {} from {}", jobId, lane.key());
+                worker.accept(job);
+            } else {
+                outcome = "missing";
+                logger.warn("Job data missing for {} in {}, dropping", jobId, lane.key());
             }
+            redisTemplate.opsForZSet().remove(lane.key(), jobId);
+            redisTemplate.delete(List.of(jobKey, JobConstants.JOB_ATTEMPTS_PREFIX + jobId));
         } catch (Exception e) {
-            logger.error("Error in refund job processor", e);
+            outcome = "error";
+            logger.error("Error processing job {} from {}", jobId, lane.key(), e);
+            retryLater(queueName, lane.key(), jobId);
+        } finally {
+            heartbeatService.jobFinished();
+            sample.stop(timer("gateway.jobs.processing", lane.name(), outcome));
+        }
+    }
+    
+    /**
+     * Keeps a failed job in its lane, due again after JOB_RETRY_BASE_DELAY_MS doubled for every
+     * earlier failure. After MAX_JOB_ATTEMPTS failures it moves to the queue's dead-letter set, its
+     * data left to expire so it can be inspected or requeued. If Redis fails here too, the job keeps
+     * its score and is taken again on the next poll.
+     */
+    private void retryLater(String queueName, String lane, String jobId) {
+        String attemptsKey = JobConstants.JOB_ATTEMPTS_PREFIX + jobId;
+        long attempts = Objects.requireNonNullElse(redisTemplate.opsForValue().increment(attemptsKey), 1L);
+        redisTemplate.expire(attemptsKey, 24, TimeUnit.HOURS);
+        long now = System.currentTimeMillis();
+        if (attempts >= JobConstants.MAX_JOB_ATTEMPTS) {
+            redisTemplate.opsForZSet().add(queueName + JobConstants.DEAD_LETTER_SUFFIX, jobId, now);
+            redisTemplate.opsForZSet().remove(lane, jobId);
+            logger.error("Job {} failed {} times, moved to {}{}", jobId, attempts, queueName,
+                    JobConstants.DEAD_LETTER_SUFFIX);
+            return;
+        }
+        long delay = JobConstants.JOB_RETRY_BASE_DELAY_MS << Math.min(attempts - 1, 20);
+        redisTemplate.opsForZSet().add(lane, jobId, now + delay);
+    }
+    
+    private Timer timer(String name, String queueName, String outcome) {
+        Timer.Builder builder = Timer.builder(name)
+                .tag("queue", queueName)
+                .publishPercentileHistogram();
+        if (outcome != null) {
+            builder.tag("outcome", outcome);
         }
+        return builder.register(meterRegistry);
     }
 }
@@ -0,0 +1,88 @@
+package com.example.gateway.workers;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.TimeUnit;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the one node that runs cluster-wide singleton schedules (webhook retry scan, partition
+ * maintenance), so they do not multiply with replicas.
+ * <p>
+ * The leader holds the Redisson lock scheduler:leader. Redisson's watchdog keeps extending it every
+ * third of scheduler.leader.lease-ms while the node is alive; a node that dies lets it expire
+ * after at most one lease, and a node that shuts down releases it at once. Every node tries to
+ * take the lock every scheduler.leader.check-interval-ms.
+ * <p>
+ * The lock is taken on behalf of a fixed owner id rather than the scheduler thread that happens to
+ * run the check, since Redisson locks belong to a thread and scheduled tasks move between threads.
+ */
+@Component
+@ConditionalOnRole(GatewayRole.WORKER)
+public class LeaderElection {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderElection.class);
+
+    private static final String LOCK_NAME = "scheduler:leader";
+
+    // Redisson prefixes it with the client's own id, so it only has to be fixed within this node
+    private static final long OWNER_ID = 1L;
+
+    private final RLock lock;
+    private final String nodeId;
+
+    private volatile boolean leader;
+
+    public LeaderElection(RedissonClient redissonClient, WorkerHeartbeatService heartbeatService,
+            MeterRegistry meterRegistry) {
+        this.lock = redissonClient.getLock(LOCK_NAME);
+        this.nodeId = heartbeatService.getNodeId();
+        Gauge.builder("gateway.scheduler.leader", this, election -> election.isLeader() ? 1 : 0)
+                .description("1 on the node that runs singleton schedules")
+                .register(meterRegistry);
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.leader.check-interval-ms:2000}")
+    public void refresh() {
+        boolean wasLeader = leader;
+        try {
+            // tryLock on a lock already held would only bump its reentrant count
+            leader = lock.isHeldByThread(OWNER_ID)
+                    || lock.tryLockAsync(OWNER_ID).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Without Redis nobody can prove leadership; standing down is the safe side
+            leader = false;
+            logger.warn("Leader election check failed on {}: {}", nodeId, e.getMessage());
+        }
+        if (leader != wasLeader) {
+            logger.info(leader ? "Node {} is now the scheduler leader" : "Node {} is no longer the scheduler leader",
+                    nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void resign() {
+        if (!leader) {
+            return;
+        }
+        leader = false;
+        try {
+            lock.unlockAsync(OWNER_ID).get(5, TimeUnit.SECONDS);
+            logger.info("Node {} released scheduler leadership", nodeId);
+        } catch (Exception e) {
+            logger.debug("Could not release scheduler leadership", e);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.gateway.workers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the monthly partitions of payments and webhook_logs in shape (see V3 migration).
+ *
+ * Every run creates partitions for the current month and partition.months.ahead months after it.
+ * With partition.archive.enabled, partitions older than partition.retention.months are detached,
+ * exported to partition.archive.dir as gzipped NDJSON (one row_to_json object per line) and dropped.
+ * A partition is only dropped after its file is complete, and a detached partition left behind by a
+ * failed run is picked up again by the next one.
+ *
+ * The daily run happens on the scheduler leader (LeaderElection), so only in worker processes. Every
+ * node, API nodes included, also runs it once at startup, so partitions exist before it takes writes
+ * even while no worker is up; a startup run in an API-only process creates partitions but leaves
+ * archival to the workers. A Postgres advisory lock keeps those runs, and a daily run overlapping a
+ * leader handover, from working at the same time.
+ */
+@Service
+public class PartitionMaintenanceJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    private static final List<String> PARTITIONED_TABLES = List.of("payments", "webhook_logs");
+
+    // Arbitrary application-wide key for pg_try_advisory_lock
+    private static final long ADVISORY_LOCK_KEY = 0x70617274L;
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    // Only present in worker processes
+    private final ObjectProvider<LeaderElection> leaderElection;
+    private final int monthsAhead;
+    private final boolean archiveEnabled;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    public PartitionMaintenanceJob(
+            JdbcTemplate jdbcTemplate,
+            ObjectProvider<LeaderElection> leaderElection,
+            @Value("${partition.months.ahead:3}") int monthsAhead,
+            @Value("${partition.archive.enabled:false}") boolean archiveEnabled,
+            @Value("${partition.retention.months:12}") int retentionMonths,
+            @Value("${partition.archive.dir:archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaderElection = leaderElection;
+        this.monthsAhead = monthsAhead;
+        this.archiveEnabled = archiveEnabled;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = Paths.get(archiveDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runMaintenance(leaderElection.getIfAvailable() != null);
+    }
+
+    @Scheduled(cron = "${partition.maintenance.cron:0 15 3 * * *}", zone = "UTC")
+    public void scheduledMaintenance() {
+        LeaderElection election = leaderElection.getIfAvailable();
+        if (election != null && election.isLeader()) {
+            runMaintenance(true);
+        }
+    }
+
+    public void runMaintenance(boolean mayArchive) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection)) {
+                    logger.debug("Partition maintenance is running on another node, skipping");
+                    return null;
+                }
+                try {
+                    YearMonth current = YearMonth.now(ZoneOffset.UTC);
+                    for (String table : PARTITIONED_TABLES) {
+                        createUpcomingPartitions(connection, table, current);
+                        if (archiveEnabled && mayArchive) {
+                            archiveExpiredPartitions(connection, table, current.minusMonths(retentionMonths));
+                        }
+                    }
+                } finally {
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Partition maintenance failed", e);
+        }
+    }
+
+    private void createUpcomingPartitions(Connection connection, String table, YearMonth current) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT create_monthly_partition(?, ?)")) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                statement.setString(1, table);
+                statement.setObject(2, current.plusMonths(i).atDay(1));
+                statement.execute();
+            }
+        }
+    }
+
+    private void archiveExpiredPartitions(Connection connection, String table, YearMonth oldestKept)
+            throws SQLException {
+        for (String partition : findPartitions(connection, table)) {
+            if (!monthOf(table, partition).isBefore(oldestKept)) {
+                continue;
+            }
+            if (isAttached(connection, partition)) {
+                execute(connection, "ALTER TABLE " + quote(table) + " DETACH PARTITION " + quote(partition));
+                logger.info("Detached partition {} from {}", partition, table);
+            }
+            Path file = export(connection, partition);
+            execute(connection, "DROP TABLE " + quote(partition));
+            logger.info("Archived partition {} to {}", partition, file);
+        }
+    }
+
+    /**
+     * Attached and detached partitions alike, recognised by the &lt;table&gt;_pYYYY_MM naming.
+     */
+    private List<String> findPartitions(Connection connection, String table) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT relname FROM pg_class WHERE relkind IN ('r', 'p') AND relname ~ ? ORDER BY relname")) {
+            statement.setString(1, "^" + table + "_p[0-9]{4}_[0-9]{2}$");
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    partitions.add(rows.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static YearMonth monthOf(String table, String partition) {
+        Matcher matcher = Pattern.compile("_p(\\d{4})_(\\d{2})$").matcher(partition.substring(table.length()));
+        if (!matcher.find()) {
+            throw new IllegalStateException("Not a monthly partition: " + partition);
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    private boolean isAttached(Connection connection, String partition) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT 1 FROM pg_inherits WHERE inhrelid = ?::regclass")) {
+            statement.setString(1, partition);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+
+    /**
+     * Streams the partition through a cursor into a temporary file, then moves it into place,
+     * so a file with the final name is always complete.
+     */
+    private Path export(Connection connection, String partition) throws SQLException {
+        Path file = archiveDir.resolve(partition + ".ndjson.gz");
+        Path partial = archiveDir.resolve(partition + ".ndjson.gz.tmp");
+        boolean autoCommit = connection.getAutoCommit();
+        // PgJDBC only honours the fetch size (a server-side cursor) inside a transaction
+        connection.setAutoCommit(false);
+        try {
+            Files.createDirectories(archiveDir);
+            long rowCount = 0;
+            try (Statement statement = connection.createStatement();
+                    BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                            new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                try (ResultSet rows = statement.executeQuery(
+                        "SELECT row_to_json(t)::text FROM " + quote(partition) + " t")) {
+                    while (rows.next()) {
+                        writer.write(rows.getString(1));
+                        writer.newLine();
+                        rowCount++;
+                    }
+                }
+            }
+            connection.commit();
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Exported {} rows from {}", rowCount, partition);
+            return file;
+        } catch (IOException e) {
+            connection.rollback();
+            throw new UncheckedIOException("Failed to export partition " + partition, e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() && rows.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.gateway.workers;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.jobs.DeliverWebhookJob;
+import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobPriority;
+import com.example.gateway.jobs.JobServiceImpl;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
+import com.example.gateway.services.MicroBatcher;
+import com.example.gateway.services.PaymentStatusCache;
+import com.example.gateway.services.WebhookServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes payment outcomes from PaymentWorker in groups instead of one transaction per payment.
+ * Outcomes are collected for payments.completion.batch.window-ms (or batch.max-size outcomes) and
+ * written in one transaction: a single UPDATE ... FROM (VALUES ...) for the payments, matched on
+ * id and created_at so each row is looked up in its own partition only, plus the webhook logs of
+ * the payments it updated. After commit the status cache is written through and the webhook
+ * deliveries of the whole batch are enqueued in one Redis pipeline.
+ * <p>
+ * Durability: PaymentWorker hands an outcome over and returns, and its job is removed from the
+ * queue before the outcome is committed. Outcomes still buffered when the process dies (at most
+ * one window plus the write) are lost, and those payments stay processing as if their job had
+ * been lost. A clean shutdown writes the buffer first. A Redis failure after commit leaves the payment
+ * updated and its webhook log pending but undelivered, as enqueueWebhookDelivery always has.
+ * When the buffer is full the outcome is written on the calling worker thread instead.
+ */
+@Service
+@ConditionalOnRole(GatewayRole.WORKER)
+public class PaymentCompletionSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentCompletionSink.class);
+
+    // Only the claim the outcome was produced under may complete the payment (see
+    // PaymentRepository.claimForProcessing): still processing, at the version that claim left
+    private static final String UPDATE_PREFIX = "UPDATE payments AS p SET status = v.status, "
+            + "error_code = v.error_code, error_description = v.error_description, updated_at = v.updated_at, "
+            + "version = p.version + 1 FROM (VALUES ";
+    private static final String UPDATE_ROW = "(?, ?::timestamptz, ?::bigint, ?, ?, ?, ?::timestamptz)";
+    private static final String UPDATE_SUFFIX = ") AS v (id, created_at, version, status, error_code, "
+            + "error_description, updated_at) WHERE p.id = v.id AND p.created_at = v.created_at "
+            + "AND p.version = v.version AND p.status = '" + PaymentStatus.PROCESSING.getToken() + "' RETURNING p.id";
+
+    private record Written(List<Payment> payments, Map<String, DeliverWebhookJob> webhooks) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WebhookServiceImpl webhookService;
+    private final JobServiceImpl jobService;
+    private final PaymentStatusCache paymentStatusCache;
+    private final MicroBatcher<Payment> completions;
+
+    public PaymentCompletionSink(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            WebhookServiceImpl webhookService,
+            JobServiceImpl jobService,
+            PaymentStatusCache paymentStatusCache,
+            MeterRegistry meterRegistry,
+            @Value("${payments.completion.batch.window-ms:2}") long batchWindowMillis,
+            @Value("${payments.completion.batch.max-size:256}") int batchMaxSize,
+            @Value("${payments.completion.batch.queue-capacity:4096}") int batchQueueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.webhookService = webhookService;
+        this.jobService = jobService;
+        this.paymentStatusCache = paymentStatusCache;
+        this.completions = new MicroBatcher<>("payment-completion", batchMaxSize,
+                Duration.ofMillis(batchWindowMillis), batchQueueCapacity, this::write, meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        completions.close();
+    }
+
+    /**
+     * Queues the payment's new status, error fields and updated_at for the next batch. The payment
+     * must not be modified afterwards.
+     */
+    public void complete(Payment payment) {
+        CompletableFuture<Void> written = completions.submit(payment);
+        if (written.isCompletedExceptionally()) {
+            // Rejected: the buffer is full (or closing), so push back on the worker instead
+            write(List.of(payment));
+            return;
+        }
+        written.whenComplete((done, failure) -> {
+            if (failure != null) {
+                logger.error("Failed to write outcome of payment {}", payment.getId(), failure);
+            }
+        });
+    }
+
+    private void write(List<Payment> batch) {
+        Written written = transactionTemplate.execute(status -> {
+            Set<String> updated = new HashSet<>(jdbcTemplate.queryForList(updateSql(batch.size()), String.class,
+                    updateArguments(batch)));
+            List<Payment> payments = new ArrayList<>(updated.size());
+            for (Payment payment : batch) {
+                if (updated.contains(payment.getId())) {
+                    payments.add(payment);
+                } else {
+                    // Claimed again by a later job (or gone); that claim's outcome counts instead
+                    logger.warn("Payment {} changed since it was claimed, dropping its {} outcome",
+                            payment.getId(), payment.getStatus().getToken());
+                }
+            }
+            return new Written(payments, webhookService.savePaymentOutcomeWebhookLogs(payments));
+        });
+
+        // Committed; failures from here on must not fail the batch, or its payments would be written twice
+        try {
+            written.payments().forEach(paymentStatusCache::putPayment);
+            jobService.enqueueJobs(JobConstants.WEBHOOK_QUEUE, JobPriority.HIGH, written.webhooks());
+            logger.debug("Wrote outcomes of {} payments and enqueued their webhooks", written.payments().size());
+        } catch (RuntimeException e) {
+            logger.error("Failed to enqueue webhooks {} after writing payment outcomes", written.webhooks().keySet(), e);
+        }
+    }
+
+    private static String updateSql(int rows) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX.length() + rows * (UPDATE_ROW.length() + 2)
+                + UPDATE_SUFFIX.length());
+        sql.append(UPDATE_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(UPDATE_ROW);
+        }
+        return sql.append(UPDATE_SUFFIX).toString();
+    }
+
+    private static Object[] updateArguments(List<Payment> batch) {
+        Object[] arguments = new Object[batch.size() * 7];
+        int i = 0;
+        for (Payment payment : batch) {
+            arguments[i++] = payment.getId();
+            arguments[i++] = new SqlParameterValue(Types.TIMESTAMP_WITH_TIMEZONE, payment.getCreatedAt());
+            arguments[i++] = payment.getVersion();
+            arguments[i++] = payment.getStatus().getToken();
+            arguments[i++] = new SqlParameterValue(Types.VARCHAR, payment.getErrorCode());
+            arguments[i++] = new SqlParameterValue(Types.VARCHAR, payment.getErrorDescription());
+            arguments[i++] = new SqlParameterValue(Types.TIMESTAMP_WITH_TIMEZONE, payment.getUpdatedAt());
+        }
+        return arguments;
+    }
+}
@@ -1,30 +1,37 @@
 package com.example.gateway.workers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.jobs.JobConstants;
 import com.example.gateway.jobs.ProcessPaymentJob;
 import com.example.gateway.models.Payment;
 import com.example.gateway.models.PaymentMethod;
+import com.example.gateway.models.PaymentStatus;
 import com.example.gateway.repositories.PaymentRepository;
-import com.example.gateway.services.WebhookService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Optional;
 import java.util.Random;
 
 @Service
+@ConditionalOnRole(GatewayRole.WORKER)
 public class PaymentWorker {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentWorker.class);
     private static final Random random = new Random();
+    private static final OffsetDateTime UNBOUNDED = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
     
     @Autowired
     private PaymentRepository paymentRepository;
     
     @Autowired
-    private WebhookService webhookService;
+    private PaymentCompletionSink completionSink;
     
     @Value("${test.mode:false}")
     private boolean testMode;
@@ -43,8 +50,19 @@ public class PaymentWorker {
         logger.info("Starting to process payment job: {}", job.getJobId());
         
         try {
-            // Step 1: Fetch payment from database
-            Optional<Payment> paymentOpt = paymentRepository.findById(job.getPaymentId());
+            // Step 1: Claim the payment in one conditional UPDATE. A duplicate or late job for a
+            // finished payment stops here, before the delay
+            OffsetDateTime since = job.getCreatedAt() != null
+                    ? job.getCreatedAt().minus(JobConstants.PAYMENT_LOOKBACK)
+                    : UNBOUNDED;
+            if (paymentRepository.claimForProcessing(job.getPaymentId(), since, OffsetDateTime.now()) == 0) {
+                logger.info("Payment {} is already finished or missing, skipping job {}",
+                        job.getPaymentId(), job.getJobId());
+                return;
+            }
+            
+            // Step 2: Fetch payment from database
+            Optional<Payment> paymentOpt = findPayment(job);
             if (!paymentOpt.isPresent()) {
                 logger.error("Payment not found for ID: {}", job.getPaymentId());
                 return;
@@ -52,34 +70,28 @@ public class PaymentWorker {
             
             Payment payment = paymentOpt.get();
             
-            // Step 2: Simulate processing delay
+            // Step 3: Simulate processing delay
             simulateProcessingDelay();
             
-            // Step 3: Determine payment outcome
+            // Step 4: Determine payment outcome
             boolean isSuccess = determinePaymentOutcome(payment);
             
-            // Step 4: Update payment status based on outcome
+            // Step 5: Update payment status based on outcome
             if (isSuccess) {
-                payment.setStatus("success");
+                payment.transitionTo(PaymentStatus.SUCCESS);
                 logger.info("Payment {} processed successfully", payment.getId());
             } else {
-                payment.setStatus("failed");
+                payment.transitionTo(PaymentStatus.FAILED);
                 payment.setErrorCode("PAYMENT_FAILED");
                 payment.setErrorDescription("Payment processing failed due to payment gateway error");
                 logger.info("Payment {} failed", payment.getId());
             }
             
-            paymentRepository.save(payment);
-            
-            // Step 5: Enqueue webhook delivery job for appropriate event
-            String event = isSuccess ? "payment.success" : "payment.failed";
-            logger.info("Enqueueing webhook for event: {} for payment: {}", event, payment.getId());
-            webhookService.enqueueWebhookDelivery(
-                    payment.getMerchant().getId(),
-                    event,
-                    payment,
-                    null
-            );
+            // Step 6: Hand the outcome to the completion sink, which writes it with others in one
+            // transaction, unless the payment changed since the claim, and then enqueues the
+            // payment.success / payment.failed webhook
+            payment.setUpdatedAt(OffsetDateTime.now());
+            completionSink.complete(payment);
             
             logger.info("Payment processing job completed: {}", job.getJobId());
             
@@ -125,4 +137,19 @@ public class PaymentWorker {
         
         return isSuccess;
     }
+
+    /**
+     * Looks in the partitions around the job's creation first; jobs without a timestamp, or rows
+     * older than expected, fall back to an unbounded lookup.
+     */
+    private Optional<Payment> findPayment(ProcessPaymentJob job) {
+        if (job.getCreatedAt() != null) {
+            Optional<Payment> payment = paymentRepository.findByIdAndCreatedAtGreaterThanEqual(
+                    job.getPaymentId(), job.getCreatedAt().minus(JobConstants.PAYMENT_LOOKBACK));
+            if (payment.isPresent()) {
+                return payment;
+            }
+        }
+        return paymentRepository.findById(job.getPaymentId());
+    }
 }
@@ -1,7 +1,10 @@
 package com.example.gateway.workers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.jobs.JobConstants;
 import com.example.gateway.jobs.ProcessRefundJob;
+import com.example.gateway.models.PaymentStatus;
 import com.example.gateway.models.Refund;
 import com.example.gateway.repositories.RefundRepository;
 import com.example.gateway.services.WebhookService;
@@ -10,11 +13,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.time.OffsetDateTime;
-import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
 @Service
+@ConditionalOnRole(GatewayRole.WORKER)
 public class RefundWorker {
     
     private static final Logger logger = LoggerFactory.getLogger(RefundWorker.class);
@@ -31,7 +34,7 @@ public class RefundWorker {
         
         try {
             // Step 1: Fetch refund from database
-            Optional<Refund> refundOpt = refundRepository.findById(job.getRefundId());
+            Optional<Refund> refundOpt = refundRepository.findWithPaymentById(job.getRefundId());
             if (!refundOpt.isPresent()) {
                 logger.error("Refund not found for ID: {}", job.getRefundId());
                 return;
@@ -40,22 +43,16 @@ public class RefundWorker {
             Refund refund = refundOpt.get();
             
             // Step 2: Verify payment is refundable (status='success')
-            if (!refund.getPayment().getStatus().equals("success")) {
+            if (refund.getPayment().getStatus() != PaymentStatus.SUCCESS) {
                 logger.error("Cannot refund payment with status: {}. Payment must be in 'success' status",
-                        refund.getPayment().getStatus());
+                        refund.getPayment().getStatus().getToken());
                 refund.setStatus("failed");
                 refundRepository.save(refund);
                 return;
             }
             
             // Step 3: Verify total refunded amount does not exceed payment amount
-            List<Refund> existingRefunds = refundRepository.findByPaymentId(refund.getPayment().getId());
-            long totalRefunded = 0;
-            for (Refund r : existingRefunds) {
-                if (!"failed".equals(r.getStatus())) {
-                    totalRefunded += r.getAmount();
-                }
-            }
+            long totalRefunded = refundRepository.sumActiveRefundAmount(refund.getPayment().getId());
             
             if (totalRefunded > refund.getPayment().getAmount()) {
                 logger.error("Total refund amount {} exceeds payment amount {}", 
@@ -1,7 +1,10 @@
 package com.example.gateway.workers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
 import com.example.gateway.jobs.DeliverWebhookJob;
 import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobPriority;
 import com.example.gateway.jobs.JobServiceImpl;
 import com.example.gateway.models.WebhookLog;
 import com.example.gateway.repositories.WebhookLogRepository;
@@ -14,6 +17,7 @@ import java.time.OffsetDateTime;
 import java.util.List;
 
 @Service
+@ConditionalOnRole(GatewayRole.WORKER)
 public class RetryScheduler {
     
     private static final Logger logger = LoggerFactory.getLogger(RetryScheduler.class);
@@ -24,17 +28,24 @@ public class RetryScheduler {
     @Autowired
     private JobServiceImpl jobService;
     
+    @Autowired
+    private LeaderElection leaderElection;
+    
     /**
      * Check for pending webhooks that are ready to retry
-     * Runs every 10 seconds
+     * Runs every 10 seconds, on the scheduler leader only
      */
     @Scheduled(fixedDelay = 10000, initialDelay = 5000)
     public void scheduleWebhookRetries() {
+        if (!leaderElection.isLeader()) {
+            return;
+        }
         try {
             OffsetDateTime now = OffsetDateTime.now();
             
             // Find all pending webhooks that are ready for retry
-            List<WebhookLog> pendingRetries = webhookLogRepository.findPendingRetries(now);
+            List<WebhookLog> pendingRetries = webhookLogRepository.findPendingRetries(
+                    now, now.minus(JobConstants.WEBHOOK_LOG_LOOKBACK));
             
             if (pendingRetries != null && !pendingRetries.isEmpty()) {
                 logger.info("Found {} webhooks ready for retry", pendingRetries.size());
@@ -50,7 +61,8 @@ public class RetryScheduler {
                                 webhookLog.getPayload()
                         );
                         
-                        jobService.enqueueJob(JobConstants.WEBHOOK_QUEUE, job, jobId);
+                        // Retries drain behind first attempts (see JobPriority)
+                        jobService.enqueueJob(JobConstants.WEBHOOK_QUEUE, JobPriority.LOW, job, jobId);
                         logger.debug("Re-enqueued webhook retry job: {} for merchant: {}, attempt: {}",
                                 jobId, webhookLog.getMerchant().getId(), webhookLog.getAttempts());
                     } catch (Exception e) {
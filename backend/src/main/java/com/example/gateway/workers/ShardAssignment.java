@@ -0,0 +1,51 @@
+package com.example.gateway.workers;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which job shards each live node should own: rendezvous (highest random weight) hashing with a
+ * load cap of ceil(shards / nodes). Every node computes the same answer from the same node list,
+ * and a node joining or leaving moves only about shards / nodes shards.
+ */
+final class ShardAssignment {
+
+    private ShardAssignment() {
+    }
+
+    static Set<Integer> shardsOf(String nodeId, Collection<String> nodeIds, int shardCount) {
+        List<String> nodes = nodeIds.stream().distinct().sorted().toList();
+        Set<Integer> owned = new HashSet<>();
+        if (!nodes.contains(nodeId)) {
+            return owned;
+        }
+        int cap = (shardCount + nodes.size() - 1) / nodes.size();
+        Map<String, Integer> load = new HashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            int s = shard;
+            String owner = nodes.stream()
+                    .sorted(Comparator.comparingLong((String node) -> weight(node, s)).reversed())
+                    .filter(node -> load.getOrDefault(node, 0) < cap)
+                    .findFirst()
+                    .orElseThrow();
+            load.merge(owner, 1, Integer::sum);
+            if (owner.equals(nodeId)) {
+                owned.add(shard);
+            }
+        }
+        return owned;
+    }
+
+    // splitmix64 finaliser over the node's hash and the shard number
+    static long weight(String nodeId, int shard) {
+        long z = ((long) nodeId.hashCode() << 32) ^ (shard * 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.gateway.workers;
+
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.jobs.JobShards;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides which job shards this node consumes.
+ * <p>
+ * A shard is consumed only by the holder of its lease, jobs:shard:{n}:owner, a Redis key holding
+ * the node id with a TTL of jobs.shards.lease-ms. Every rebalance interval a node works out its
+ * share of the shards from the live heartbeat registry (ShardAssignment), claims or renews the
+ * leases of that share and releases the ones it should no longer hold. A node that joins is given
+ * its share as the others release it; the shards of a node that dies are claimed once its leases
+ * expire.
+ * <p>
+ * A shard being given up takes no new jobs, but its lease is kept until the jobs running from it
+ * finish, so the next owner cannot pick up a job that is still in progress. A lease lost to expiry
+ * (Redis unreachable for longer than a lease) can still overlap the job in flight, which then runs
+ * twice.
+ */
+@Service
+@ConditionalOnRole(GatewayRole.WORKER)
+public class ShardLeaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardLeaseManager.class);
+
+    private static final String LEASE_KEY_PREFIX = "jobs:shard:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final WorkerHeartbeatService heartbeatService;
+    private final JobShards jobShards;
+    private final String leaseMillis;
+    private final DefaultRedisScript<Long> claimScript;
+    private final DefaultRedisScript<Long> releaseScript;
+
+    // Guarded by this. owned: shards jobs may be started from; held: shards whose lease this node
+    // holds, which also covers shards being handed over while their last jobs finish
+    private final Set<Integer> owned = new TreeSet<>();
+    private final Set<Integer> held = new HashSet<>();
+    private final Map<Integer, Integer> inFlight = new HashMap<>();
+
+    public ShardLeaseManager(
+            StringRedisTemplate redisTemplate,
+            WorkerHeartbeatService heartbeatService,
+            JobShards jobShards,
+            MeterRegistry meterRegistry,
+            @Value("${jobs.shards.lease-ms:15000}") long leaseMillis) {
+        this.redisTemplate = redisTemplate;
+        this.heartbeatService = heartbeatService;
+        this.jobShards = jobShards;
+        this.leaseMillis = String.valueOf(leaseMillis);
+        this.claimScript = script("jobs/shard-lease-claim.lua");
+        this.releaseScript = script("jobs/shard-lease-release.lua");
+        Gauge.builder("gateway.jobs.shards.owned", this, manager -> manager.ownedShards().size())
+                .description("Job shards this node holds the lease for")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Snapshot of the shards this node may consume, in ascending order.
+     */
+    public synchronized Set<Integer> ownedShards() {
+        return new TreeSet<>(owned);
+    }
+
+    /**
+     * Marks a job from the shard as running. False if the shard was released since the caller
+     * looked, in which case the job must be left for the new owner.
+     */
+    public synchronized boolean begin(int shard) {
+        if (!owned.contains(shard)) {
+            return false;
+        }
+        inFlight.merge(shard, 1, Integer::sum);
+        return true;
+    }
+
+    public synchronized void finish(int shard) {
+        inFlight.computeIfPresent(shard, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.shards.rebalance-interval-ms:3000}", initialDelay = 1000)
+    public void rebalance() {
+        String nodeId = heartbeatService.getNodeId();
+        Set<String> nodes = new HashSet<>();
+        try {
+            for (Map<String, Object> node : heartbeatService.listNodes()) {
+                nodes.add(String.valueOf(node.get("id")));
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read worker nodes, keeping shards {}: {}", ownedShards(), e.getMessage());
+            return;
+        }
+        // This node counts even before its first heartbeat is visible
+        nodes.add(nodeId);
+        Set<Integer> wanted = ShardAssignment.shardsOf(nodeId, nodes, jobShards.count());
+
+        for (int shard = 0; shard < jobShards.count(); shard++) {
+            try {
+                if (wanted.contains(shard)) {
+                    claim(nodeId, shard);
+                } else {
+                    release(nodeId, shard);
+                }
+            } catch (Exception e) {
+                // Renewal retries next round; the lease outlives a few failed rounds
+                logger.warn("Could not update lease of job shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    private void claim(String nodeId, int shard) {
+        boolean holds = renew(nodeId, shard);
+        synchronized (this) {
+            if (holds) {
+                held.add(shard);
+                if (owned.add(shard)) {
+                    logger.info("Node {} claimed job shard {}", nodeId, shard);
+                }
+            } else {
+                held.remove(shard);
+                if (owned.remove(shard)) {
+                    logger.warn("Node {} lost the lease of job shard {}", nodeId, shard);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops taking new jobs from the shard at once, but keeps the lease until the jobs already
+     * running from it are done.
+     */
+    private void release(String nodeId, int shard) {
+        boolean busy;
+        synchronized (this) {
+            owned.remove(shard);
+            if (!held.contains(shard)) {
+                return;
+            }
+            busy = inFlight.containsKey(shard);
+        }
+        if (busy) {
+            renew(nodeId, shard);
+            return;
+        }
+        redisTemplate.execute(releaseScript, List.of(leaseKey(shard)), nodeId);
+        synchronized (this) {
+            held.remove(shard);
+        }
+        logger.info("Node {} released job shard {}", nodeId, shard);
+    }
+
+    private boolean renew(String nodeId, int shard) {
+        Long result = redisTemplate.execute(claimScript, List.of(leaseKey(shard)), nodeId, leaseMillis);
+        return result != null && result == 1L;
+    }
+
+    /**
+     * Hands idle shards over straight away instead of making their next owner wait out the lease.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        String nodeId = heartbeatService.getNodeId();
+        Set<Integer> leases;
+        synchronized (this) {
+            leases = new HashSet<>(held);
+        }
+        for (int shard : leases) {
+            try {
+                release(nodeId, shard);
+            } catch (Exception e) {
+                logger.debug("Could not release job shard {}", shard, e);
+            }
+        }
+    }
+
+    private static String leaseKey(int shard) {
+        return LEASE_KEY_PREFIX + shard + ":owner";
+    }
+
+    private static DefaultRedisScript<Long> script(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
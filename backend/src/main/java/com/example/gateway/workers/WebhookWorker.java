@@ -1,5 +1,8 @@
 package com.example.gateway.workers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.config.JsonCodecs;
 import com.example.gateway.jobs.DeliverWebhookJob;
 import com.example.gateway.jobs.JobConstants;
 import com.example.gateway.jobs.JobServiceImpl;
@@ -9,10 +12,10 @@ import com.example.gateway.repositories.MerchantRepository;
 import com.example.gateway.repositories.WebhookLogRepository;
 import com.example.gateway.services.WebhookServiceImpl;
 import com.example.gateway.services.WebhookSignatureService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.hc.client5.http.classic.HttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.io.entity.StringEntity;
@@ -27,11 +30,10 @@ import java.time.OffsetDateTime;
 import java.util.Optional;
 
 @Service
+@ConditionalOnRole(GatewayRole.WORKER)
 public class WebhookWorker {
     
     private static final Logger logger = LoggerFactory.getLogger(WebhookWorker.class);
-    private static final int WEBHOOK_TIMEOUT_SECONDS = 5;
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     
     @Autowired
     private WebhookLogRepository webhookLogRepository;
@@ -48,12 +50,21 @@ public class WebhookWorker {
     @Autowired
     private JobServiceImpl jobService;
     
+    @Autowired
+    private CloseableHttpClient webhookHttpClient;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private JsonCodecs jsonCodecs;
+    
     public void deliverWebhook(DeliverWebhookJob job) {
         logger.info("Starting webhook delivery job: {}", job.getJobId());
         
         try {
             // Fetch existing webhook log by ID, or create new one
-            WebhookLog webhookLog = webhookLogRepository.findById(job.getJobId()).orElse(null);
+            WebhookLog webhookLog = findWebhookLog(job).orElse(null);
             
             if (webhookLog == null) {
                 // First attempt - create webhook log entry
@@ -101,15 +112,17 @@ public class WebhookWorker {
     }
     
     private void deliverWebhookAttempt(WebhookLog webhookLog, DeliverWebhookJob job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Set once a response arrives, so a later failure (e.g. saving the log) is not also counted as an error
+        boolean[] responded = {false};
         try {
             Merchant merchant = webhookLog.getMerchant();
             
             // Generate HMAC signature
-            String payloadString = objectMapper.writeValueAsString(webhookLog.getPayload());
+            String payloadString = jsonCodecs.write(webhookLog.getPayload());
             String signature = signatureService.generateSignature(payloadString, merchant.getWebhookSecret());
             
-            // Send HTTP POST request
-            HttpClient httpClient = HttpClients.createDefault();
+            // Send HTTP POST request over the shared pooled client
             HttpPost httpPost = new HttpPost(merchant.getWebhookUrl());
             
             // Set headers
@@ -119,10 +132,12 @@ public class WebhookWorker {
             // Set body
             httpPost.setEntity(new StringEntity(payloadString, ContentType.APPLICATION_JSON));
             
-            // Execute with timeout
-            int socketTimeoutMs = WEBHOOK_TIMEOUT_SECONDS * 1000;
-            HttpResponse response = httpClient.execute(httpPost, (httpResponse) -> {
+            // Execute (connect/response timeouts are configured on the client)
+            HttpResponse response = webhookHttpClient.execute(httpPost, (httpResponse) -> {
                 int statusCode = httpResponse.getCode();
+                responded[0] = true;
+                recordDelivery(sample, String.valueOf(statusCode),
+                        statusCode >= 200 && statusCode < 300 ? "success" : "failure");
                 webhookLog.setAttempts(webhookLog.getAttempts() + 1);
                 webhookLog.setLastAttemptAt(OffsetDateTime.now());
                 webhookLog.setResponseCode(statusCode);
@@ -173,6 +188,9 @@ public class WebhookWorker {
             
         } catch (Exception e) {
             logger.error("Error attempting webhook delivery to: " + webhookLog.getMerchant().getWebhookUrl(), e);
+            if (!responded[0]) {
+                recordDelivery(sample, "none", "error");
+            }
             
             // Log the failed attempt
             webhookLog.setAttempts(webhookLog.getAttempts() + 1);
@@ -190,4 +208,32 @@ public class WebhookWorker {
             webhookLogRepository.save(webhookLog);
         }
     }
+    
+    /**
+     * gateway.webhook.delivery: time per delivery attempt, tagged by response status code and outcome
+     * (success = 2xx, failure = other status, error = no response, e.g. timeout or connection refused).
+     */
+    private void recordDelivery(Timer.Sample sample, String statusCode, String outcome) {
+        sample.stop(Timer.builder("gateway.webhook.delivery")
+                .description("Webhook delivery attempt latency")
+                .tag("status_code", statusCode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Bounded to recent partitions like PaymentWorker; a miss falls back to an unbounded lookup
+     * before the job is treated as having no log yet.
+     */
+    private Optional<WebhookLog> findWebhookLog(DeliverWebhookJob job) {
+        if (job.getCreatedAt() != null) {
+            Optional<WebhookLog> webhookLog = webhookLogRepository.findWithMerchantByIdAndCreatedAtGreaterThanEqual(
+                    job.getJobId(), job.getCreatedAt().minus(JobConstants.WEBHOOK_LOG_LOOKBACK));
+            if (webhookLog.isPresent()) {
+                return webhookLog;
+            }
+        }
+        return webhookLogRepository.findWithMerchantById(job.getJobId());
+    }
 }
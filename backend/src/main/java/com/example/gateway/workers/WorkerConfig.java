@@ -1,23 +1,59 @@
 package com.example.gateway.workers;
 
+import com.example.gateway.config.ConditionalOnRole;
+import com.example.gateway.config.GatewayRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
-import org.springframework.core.task.TaskExecutor;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
+@ConditionalOnRole(GatewayRole.WORKER)
 public class WorkerConfig {
 
     @Bean
-    @Primary
-    public TaskExecutor workerTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setThreadNamePrefix("worker-");
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(4);
-        executor.setQueueCapacity(10);
-        executor.initialize();
-        return executor;
+    public PoolingHttpClientConnectionManager webhookConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${webhook.http.timeout.seconds:5}") int timeoutSeconds,
+            @Value("${webhook.http.max.connections:50}") int maxConnections,
+            @Value("${webhook.http.max.connections.per.route:10}") int maxConnectionsPerRoute) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofSeconds(timeoutSeconds))
+                        .setSocketTimeout(Timeout.ofSeconds(timeoutSeconds))
+                        .build())
+                .build();
+        // httpcomponents.httpclient.pool.* gauges (leased, available, pending, max)
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "webhook").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * One pooled client for all webhook deliveries; every timeout is bounded by webhook.http.timeout.seconds.
+     */
+    @Bean
+    public CloseableHttpClient webhookHttpClient(
+            PoolingHttpClientConnectionManager webhookConnectionManager,
+            @Value("${webhook.http.timeout.seconds:5}") int timeoutSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(webhookConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofSeconds(timeoutSeconds))
+                        .setResponseTimeout(Timeout.ofSeconds(timeoutSeconds))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .disableAutomaticRetries()
+                .build();
     }
 }
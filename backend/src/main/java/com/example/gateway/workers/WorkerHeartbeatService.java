@@ -0,0 +1,201 @@
+package com.example.gateway.workers;
+
+import com.example.gateway.config.GatewayRole;
+import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobServiceImpl;
+import jakarta.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes this node's liveness and load to Redis and reads the registry of all nodes.
+ * <p>
+ * Every node that consumes jobs writes a hash worker:node:{id} (queues, in-flight jobs, processed
+ * total, throughput) with a TTL of a few heartbeat intervals and adds its id to the worker:nodes
+ * set. A node that stops heartbeating disappears once its hash expires; stale ids are pruned
+ * from the set on read.
+ * <p>
+ * Only processes whose gateway.role runs workers publish; an API-only process just reads the registry.
+ */
+@Service
+public class WorkerHeartbeatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerHeartbeatService.class);
+
+    public static final String NODES_KEY = "worker:nodes";
+    public static final String NODE_KEY_PREFIX = "worker:node:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JobServiceImpl jobService;
+    private final String nodeId;
+    private final boolean publishing;
+    private final long ttlMillis;
+    private final long startedAt = System.currentTimeMillis();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private long lastProcessed;
+    private long lastPublishedAt = startedAt;
+
+    public WorkerHeartbeatService(
+            StringRedisTemplate redisTemplate,
+            JobServiceImpl jobService,
+            @Value("${worker.node.id:}") String nodeId,
+            @Value("${worker.heartbeat.interval.ms:5000}") long intervalMillis,
+            @Value("${gateway.role:all}") String role) {
+        this.redisTemplate = redisTemplate;
+        this.jobService = jobService;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.publishing = GatewayRole.of(role).includes(GatewayRole.WORKER);
+        // Survive two missed heartbeats before the node is considered gone
+        this.ttlMillis = intervalMillis * 3;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void jobStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void jobFinished() {
+        inFlight.decrementAndGet();
+        processed.increment();
+    }
+
+    @Scheduled(fixedRateString = "${worker.heartbeat.interval.ms:5000}")
+    public void publishHeartbeat() {
+        if (!publishing) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long processedTotal = processed.sum();
+        double throughput = now > lastPublishedAt
+                ? (processedTotal - lastProcessed) * 1000.0 / (now - lastPublishedAt)
+                : 0.0;
+        lastProcessed = processedTotal;
+        lastPublishedAt = now;
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("id", nodeId);
+        fields.put("queues", String.join(",", JobConstants.QUEUES));
+        fields.put("in_flight", String.valueOf(inFlight.get()));
+        fields.put("processed_total", String.valueOf(processedTotal));
+        fields.put("throughput_per_sec", String.valueOf(Math.round(throughput * 100) / 100.0));
+        fields.put("started_at", String.valueOf(startedAt));
+        fields.put("last_seen", String.valueOf(now));
+
+        String nodeKey = NODE_KEY_PREFIX + nodeId;
+        try {
+            // One round trip for the whole heartbeat
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.hMSet(nodeKey, fields);
+                redis.pExpire(nodeKey, ttlMillis);
+                redis.sAdd(NODES_KEY, nodeId);
+                return null;
+            });
+            jobService.setWorkerHeartbeat();
+        } catch (Exception e) {
+            logger.warn("Could not publish worker heartbeat for {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * All nodes with a live heartbeat, in no particular order.
+     */
+    public List<Map<String, Object>> listNodes() {
+        Set<String> ids = redisTemplate.opsForSet().members(NODES_KEY);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<String> orderedIds = new ArrayList<>(ids);
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (String id : orderedIds) {
+                redis.hGetAll(NODE_KEY_PREFIX + id);
+            }
+            return null;
+        });
+
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        for (int i = 0; i < orderedIds.size(); i++) {
+            Object hash = hashes.get(i);
+            if (!(hash instanceof Map<?, ?> fields) || fields.isEmpty()) {
+                stale.add(orderedIds.get(i));
+                continue;
+            }
+            nodes.add(toNode(fields));
+        }
+        if (!stale.isEmpty()) {
+            redisTemplate.opsForSet().remove(NODES_KEY, stale.toArray());
+        }
+        return nodes;
+    }
+
+    @PreDestroy
+    public void deregister() {
+        if (!publishing) {
+            return;
+        }
+        try {
+            redisTemplate.delete(NODE_KEY_PREFIX + nodeId);
+            redisTemplate.opsForSet().remove(NODES_KEY, nodeId);
+        } catch (Exception e) {
+            logger.debug("Could not deregister worker node {}", nodeId, e);
+        }
+    }
+
+    private static Map<String, Object> toNode(Map<?, ?> fields) {
+        long now = System.currentTimeMillis();
+        long lastSeen = parseLong(fields.get("last_seen"));
+        String queues = String.valueOf(fields.get("queues"));
+
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("id", fields.get("id"));
+        node.put("queues", queues.isEmpty() ? List.of() : List.of(queues.split(",")));
+        node.put("in_flight", parseLong(fields.get("in_flight")));
+        node.put("processed_total", parseLong(fields.get("processed_total")));
+        node.put("throughput_per_sec", Double.parseDouble(String.valueOf(fields.get("throughput_per_sec"))));
+        node.put("uptime_seconds", TimeUnit.MILLISECONDS.toSeconds(now - parseLong(fields.get("started_at"))));
+        node.put("last_seen_ms_ago", Math.max(0, now - lastSeen));
+        return node;
+    }
+
+    private static long parseLong(Object value) {
+        try {
+            return Long.parseLong(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        // The pid keeps several processes on one host apart
+        return host + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+}
@@ -1,26 +1,22 @@
 package com.example.gateway.workers;
 
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
-import org.springframework.core.task.TaskExecutor;
+import com.example.gateway.jobs.JobService;
 import org.springframework.stereotype.Component;
 
+/**
+ * Worker liveness as seen by the API: true while any node's heartbeat key is present in Redis.
+ * A single EXISTS on that key (JobService.isWorkerRunning), so health checks never wait on a worker.
+ */
 @Component
 public class WorkerStatusService {
 
-    private final TaskExecutor taskExecutor;
+    private final JobService jobService;
 
-    public WorkerStatusService(TaskExecutor taskExecutor) {
-        this.taskExecutor = taskExecutor;
+    public WorkerStatusService(JobService jobService) {
+        this.jobService = jobService;
     }
 
     public boolean isRunning() {
-        CountDownLatch latch = new CountDownLatch(1);
-        try {
-            taskExecutor.execute(latch::countDown);
-            return latch.await(2, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            return false;
-        }
+        return jobService.isWorkerRunning();
     }
 }
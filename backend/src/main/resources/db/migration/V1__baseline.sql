@@ -0,0 +1,100 @@
+-- Baseline: the schema as Hibernate ddl-auto=update created it.
+-- Databases that already have these tables are baselined at version 1 and skip this script.
+
+CREATE TABLE merchant (
+    id             UUID         NOT NULL,
+    name           VARCHAR(255) NOT NULL,
+    email          VARCHAR(255) NOT NULL,
+    api_key        VARCHAR(64)  NOT NULL,
+    api_secret     VARCHAR(64)  NOT NULL,
+    webhook_url    TEXT,
+    webhook_secret VARCHAR(64),
+    is_active      BOOLEAN      NOT NULL,
+    created_at     TIMESTAMPTZ  NOT NULL,
+    updated_at     TIMESTAMPTZ  NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (email),
+    UNIQUE (api_key)
+);
+
+CREATE TABLE orders (
+    id          VARCHAR(64)  NOT NULL,
+    merchant_id UUID         NOT NULL REFERENCES merchant (id),
+    amount      INTEGER      NOT NULL,
+    currency    VARCHAR(3)   NOT NULL,
+    receipt     VARCHAR(255),
+    notes       TEXT,
+    status      VARCHAR(20)  NOT NULL,
+    created_at  TIMESTAMPTZ  NOT NULL,
+    updated_at  TIMESTAMPTZ  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_orders_merchant_id ON orders (merchant_id);
+
+CREATE TABLE payments (
+    id                VARCHAR(64)  NOT NULL,
+    order_id          VARCHAR(64)  NOT NULL REFERENCES orders (id),
+    merchant_id       UUID         NOT NULL REFERENCES merchant (id),
+    amount            INTEGER      NOT NULL,
+    currency          VARCHAR(3)   NOT NULL,
+    method            VARCHAR(20)  NOT NULL,
+    status            VARCHAR(20)  NOT NULL,
+    vpa               VARCHAR(255),
+    card_network      VARCHAR(20),
+    card_last4        VARCHAR(4),
+    error_code        VARCHAR(50),
+    error_description VARCHAR(255),
+    captured          BOOLEAN      NOT NULL,
+    created_at        TIMESTAMPTZ  NOT NULL,
+    updated_at        TIMESTAMPTZ  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_payments_order_id ON payments (order_id);
+CREATE INDEX idx_payments_merchant_id ON payments (merchant_id);
+CREATE INDEX idx_payments_status ON payments (status);
+
+CREATE TABLE refunds (
+    id           VARCHAR(64) NOT NULL,
+    payment_id   VARCHAR(64) NOT NULL REFERENCES payments (id),
+    merchant_id  UUID        NOT NULL REFERENCES merchant (id),
+    amount       BIGINT      NOT NULL,
+    reason       TEXT,
+    status       VARCHAR(20) NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL,
+    processed_at TIMESTAMPTZ,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_refunds_payment_id ON refunds (payment_id);
+
+CREATE TABLE webhook_logs (
+    id              VARCHAR(255) NOT NULL,
+    merchant_id     UUID         NOT NULL REFERENCES merchant (id),
+    event           VARCHAR(50)  NOT NULL,
+    payload         JSONB        NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL,
+    last_attempt_at TIMESTAMPTZ,
+    next_retry_at   TIMESTAMPTZ,
+    response_code   INTEGER,
+    response_body   TEXT,
+    created_at      TIMESTAMPTZ  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_webhook_logs_merchant_id ON webhook_logs (merchant_id);
+CREATE INDEX idx_webhook_logs_status ON webhook_logs (status);
+CREATE INDEX idx_webhook_logs_next_retry ON webhook_logs (next_retry_at);
+
+CREATE TABLE idempotency_keys (
+    id          UUID         NOT NULL,
+    key         VARCHAR(255) NOT NULL,
+    merchant_id UUID         NOT NULL REFERENCES merchant (id),
+    response    JSONB        NOT NULL,
+    created_at  TIMESTAMPTZ  NOT NULL,
+    expires_at  TIMESTAMPTZ  NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (key, merchant_id)
+);
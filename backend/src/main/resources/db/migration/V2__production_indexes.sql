@@ -0,0 +1,36 @@
+-- Indexes shaped like the queries that use them.
+
+-- Schemas created by ddl-auto carry Hibernate's enum check constraints, which reject card
+-- networks added since (DISCOVER, DINERS, MAESTRO). The application validates these values.
+ALTER TABLE payments DROP CONSTRAINT IF EXISTS payments_method_check;
+ALTER TABLE payments DROP CONSTRAINT IF EXISTS payments_card_network_check;
+
+-- Merchant listings filter by merchant and order or range by creation time.
+-- The composite indexes also serve merchant-only lookups, so the single-column ones go.
+CREATE INDEX IF NOT EXISTS idx_payments_merchant_created ON payments (merchant_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_refunds_merchant_created ON refunds (merchant_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_webhook_logs_merchant_created ON webhook_logs (merchant_id, created_at);
+DROP INDEX IF EXISTS idx_payments_merchant_id;
+DROP INDEX IF EXISTS idx_webhook_logs_merchant_id;
+
+-- findPendingRetries: status = 'pending' AND next_retry_at <= now ORDER BY next_retry_at.
+-- Delivered and failed logs never appear in the index.
+CREATE INDEX IF NOT EXISTS idx_webhook_logs_pending_retry ON webhook_logs (next_retry_at)
+    WHERE status = 'pending' AND next_retry_at IS NOT NULL;
+DROP INDEX IF EXISTS idx_webhook_logs_next_retry;
+
+-- Idempotency lookups are by merchant then key. Replace the (key, merchant_id) unique
+-- constraint, whose generated name differs between databases, with (merchant_id, key).
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'idempotency_keys'::regclass AND contype = 'u'
+    LOOP
+        EXECUTE format('ALTER TABLE idempotency_keys DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_idempotency_keys_merchant_key ON idempotency_keys (merchant_id, key);
@@ -0,0 +1,145 @@
+-- Monthly range partitions on created_at for payments and webhook_logs.
+-- Months are UTC calendar months; partitions are named <table>_pYYYY_MM. PartitionMaintenanceJob
+-- keeps future months created and archives expired ones, using create_monthly_partition below.
+--
+-- Partitioning gives up some integrity:
+--
+-- * refunds.payment_id loses its foreign key, since a foreign key to a partitioned table must include
+--   the partition key and refunds do not carry created_at. A trigger at the end checks it instead.
+-- * The primary keys become (id, created_at), so Postgres no longer enforces that a payment id is
+--   unique on its own. Payment ids are 16 random alphanumerics (IDGeneratorService).
+
+-- Rows for a month that has no partition yet land in the <table>_default partition. Postgres refuses
+-- to create a partition whose range the default partition already holds rows for, so those rows are
+-- moved into the new partition, which is then attached
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, for_month DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start TIMESTAMPTZ := date_trunc('month', for_month::timestamp) AT TIME ZONE 'UTC';
+    month_end TIMESTAMPTZ := (date_trunc('month', for_month::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+    partition_name TEXT := format('%s_p%s', parent, to_char(for_month, 'YYYY_MM'));
+    default_name TEXT := parent || '_default';
+    stranded BOOLEAN;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE created_at >= %L AND created_at < %L)',
+        default_name, month_start, month_end) INTO stranded;
+
+    IF NOT stranded THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            partition_name, parent, month_start, month_end);
+    ELSE
+        EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS)', partition_name, parent);
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+            'INSERT INTO %I SELECT * FROM moved', default_name, month_start, month_end, partition_name);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            parent, partition_name, month_start, month_end);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Replaced by check_refund_payment_exists below
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'refunds'::regclass AND confrelid = 'payments'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE refunds DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END $$;
+
+-- payments
+
+ALTER TABLE payments RENAME TO payments_unpartitioned;
+
+CREATE TABLE payments (LIKE payments_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+CREATE TABLE payments_default PARTITION OF payments DEFAULT;
+
+DO $$
+DECLARE
+    partition_month DATE;
+BEGIN
+    FOR partition_month IN
+        SELECT generate_series(
+            date_trunc('month', COALESCE((SELECT min(created_at) FROM payments_unpartitioned), now()) AT TIME ZONE 'UTC'),
+            date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+            INTERVAL '1 month')::date
+    LOOP
+        PERFORM create_monthly_partition('payments', partition_month);
+    END LOOP;
+END $$;
+
+INSERT INTO payments SELECT * FROM payments_unpartitioned;
+DROP TABLE payments_unpartitioned;
+
+-- The primary key of a partitioned table must contain the partition key
+ALTER TABLE payments ADD PRIMARY KEY (id, created_at);
+ALTER TABLE payments ADD FOREIGN KEY (order_id) REFERENCES orders (id);
+ALTER TABLE payments ADD FOREIGN KEY (merchant_id) REFERENCES merchant (id);
+CREATE INDEX idx_payments_order_id ON payments (order_id);
+CREATE INDEX idx_payments_status ON payments (status);
+CREATE INDEX idx_payments_merchant_created ON payments (merchant_id, created_at);
+
+-- webhook_logs
+
+ALTER TABLE webhook_logs RENAME TO webhook_logs_unpartitioned;
+
+CREATE TABLE webhook_logs (LIKE webhook_logs_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+CREATE TABLE webhook_logs_default PARTITION OF webhook_logs DEFAULT;
+
+DO $$
+DECLARE
+    partition_month DATE;
+BEGIN
+    FOR partition_month IN
+        SELECT generate_series(
+            date_trunc('month', COALESCE((SELECT min(created_at) FROM webhook_logs_unpartitioned), now()) AT TIME ZONE 'UTC'),
+            date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+            INTERVAL '1 month')::date
+    LOOP
+        PERFORM create_monthly_partition('webhook_logs', partition_month);
+    END LOOP;
+END $$;
+
+INSERT INTO webhook_logs SELECT * FROM webhook_logs_unpartitioned;
+DROP TABLE webhook_logs_unpartitioned;
+
+ALTER TABLE webhook_logs ADD PRIMARY KEY (id, created_at);
+ALTER TABLE webhook_logs ADD FOREIGN KEY (merchant_id) REFERENCES merchant (id);
+CREATE INDEX idx_webhook_logs_status ON webhook_logs (status);
+CREATE INDEX idx_webhook_logs_merchant_created ON webhook_logs (merchant_id, created_at);
+CREATE INDEX idx_webhook_logs_pending_retry ON webhook_logs (next_retry_at)
+    WHERE status = 'pending' AND next_retry_at IS NOT NULL;
+
+-- refunds
+
+-- refunds.payment_id must name an existing payment. Like a foreign key check, the payment row is
+-- locked FOR KEY SHARE until the refund's transaction ends. The lookup is by id alone, so it probes
+-- the primary key index of every payments partition. Archiving a payments partition (dropping it)
+-- is not blocked and leaves the refunds of those payments behind, as the archive files do.
+CREATE OR REPLACE FUNCTION check_refund_payment_exists() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM 1 FROM payments WHERE id = NEW.payment_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'payment % referenced by refund % does not exist', NEW.payment_id, NEW.id
+            USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER refunds_payment_exists_on_insert
+    BEFORE INSERT ON refunds
+    FOR EACH ROW EXECUTE FUNCTION check_refund_payment_exists();
+
+-- Hibernate writes every column on update, so only a changed payment_id is checked again
+CREATE TRIGGER refunds_payment_exists_on_update
+    BEFORE UPDATE OF payment_id ON refunds
+    FOR EACH ROW WHEN (OLD.payment_id IS DISTINCT FROM NEW.payment_id)
+    EXECUTE FUNCTION check_refund_payment_exists();
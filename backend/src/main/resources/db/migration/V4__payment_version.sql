@@ -0,0 +1,3 @@
+-- Optimistic locking for payments (Payment.version). A constant default is recorded in the
+-- catalog, so existing partitions are not rewritten.
+ALTER TABLE payments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
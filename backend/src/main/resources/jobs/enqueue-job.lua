@@ -0,0 +1,10 @@
+-- Queue a job unless it is already queued, and only then mark it pending and count it.
+-- KEYS[1] lane, KEYS[2] job status key, KEYS[3] pending counter
+-- ARGV[1] score, ARGV[2] job id, ARGV[3] pending status value, ARGV[4] status TTL in seconds
+-- Returns 1 if the job was added, 0 if it was already queued (its score is left alone)
+if redis.call('ZADD', KEYS[1], 'NX', ARGV[1], ARGV[2]) == 0 then
+    return 0
+end
+redis.call('SET', KEYS[2], ARGV[3], 'EX', ARGV[4])
+redis.call('INCR', KEYS[3])
+return 1
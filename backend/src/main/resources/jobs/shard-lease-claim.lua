@@ -0,0 +1,13 @@
+-- Claim or renew a shard lease.
+-- KEYS[1] lease key, ARGV[1] node id, ARGV[2] lease length in ms
+-- Returns 1 if the node holds the lease afterwards, 0 if another node does
+local owner = redis.call('GET', KEYS[1])
+if owner == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+if owner then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return 1
@@ -0,0 +1,33 @@
+-- Token bucket: refill by elapsed server time, then grant up to ARGV[3] tokens.
+-- KEYS[1] bucket hash (tokens, ts)
+-- ARGV[1] capacity, ARGV[2] refill tokens per second, ARGV[3] tokens requested
+-- Returns {granted, remaining, retry_after_ms}
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+-- Milliseconds keep the timestamp within the 14 significant digits tostring() preserves
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+-- An idle bucket is full again after capacity / rate seconds; keep it no longer than that
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)
+
+local retryAfter = 0
+if granted == 0 then
+    retryAfter = math.ceil((1 - tokens) * 1000 / rate)
+end
+return {granted, math.floor(tokens), retryAfter}
@@ -0,0 +1,162 @@
+package com.example.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.gateway.models.Merchant;
+import com.example.gateway.models.Order;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentMethod;
+import com.example.gateway.models.PaymentStatus;
+import com.example.gateway.models.Refund;
+import com.example.gateway.models.WebhookLog;
+import com.example.gateway.repositories.MerchantRepository;
+import com.example.gateway.repositories.OrderRepository;
+import com.example.gateway.repositories.PaymentRepository;
+import com.example.gateway.repositories.RefundRepository;
+import com.example.gateway.repositories.WebhookLogRepository;
+import com.example.gateway.workers.RetryScheduler;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Asserts that read endpoints issue a fixed number of SQL statements however many rows they return.
+ * Statements are counted with Hibernate statistics around a single MockMvc request.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+class EndpointQueryCountTests extends AbstractContainerTests {
+
+	// Its periodic retry query would otherwise land inside a measured request
+	@MockBean
+	RetryScheduler retryScheduler;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	MerchantRepository merchantRepository;
+
+	@Autowired
+	OrderRepository orderRepository;
+
+	@Autowired
+	PaymentRepository paymentRepository;
+
+	@Autowired
+	RefundRepository refundRepository;
+
+	@Autowired
+	WebhookLogRepository webhookLogRepository;
+
+	Merchant small;
+	Merchant large;
+
+	@BeforeEach
+	void seed() {
+		small = seedMerchant(2);
+		large = seedMerchant(25);
+	}
+
+	@Test
+	void listPaymentsIsConstantInRowCount() throws Exception {
+		long smallCount = countStatements(small, "/api/v1/payments");
+		long largeCount = countStatements(large, "/api/v1/payments");
+
+		assertThat(largeCount).isEqualTo(smallCount);
+		// Authentication plus the payment select; orders and merchants stay unloaded
+		assertThat(largeCount).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void listWebhooksIsConstantInPageSize() throws Exception {
+		long smallPage = countStatements(large, "/api/v1/webhooks?limit=2&offset=0");
+		long largePage = countStatements(large, "/api/v1/webhooks?limit=25&offset=0");
+
+		assertThat(largePage).isEqualTo(smallPage);
+		// Authentication, the projected page and the count
+		assertThat(largePage).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void getRefundDoesNotLoadPaymentOrMerchant() throws Exception {
+		Refund refund = refundRepository.findByMerchantId(large.getId()).get(0);
+
+		assertThat(countStatements(large, "/api/v1/refunds/" + refund.getId())).isLessThanOrEqualTo(2);
+	}
+
+	private long countStatements(Merchant merchant, String uri) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get(uri)
+						.header("X-Api-Key", merchant.getApiKey())
+						.header("X-Api-Secret", merchant.getApiSecret()))
+				.andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private Merchant seedMerchant(int rows) {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		Merchant merchant = new Merchant();
+		merchant.setName("Query Count " + suffix);
+		merchant.setEmail("qc_" + suffix + "@example.com");
+		merchant.setApiKey("key_qc_" + suffix);
+		merchant.setApiSecret("secret_qc_" + suffix);
+		merchant = merchantRepository.save(merchant);
+
+		for (int i = 0; i < rows; i++) {
+			Order order = new Order();
+			order.setId("order_qc" + suffix + i);
+			order.setMerchant(merchant);
+			order.setAmount(50000);
+			order = orderRepository.save(order);
+
+			Payment payment = new Payment();
+			payment.setId("pay_qc" + suffix + i);
+			payment.setOrder(order);
+			payment.setMerchant(merchant);
+			payment.setAmount(50000);
+			payment.setMethod(PaymentMethod.UPI);
+			payment.setStatus(PaymentStatus.SUCCESS);
+			payment = paymentRepository.save(payment);
+
+			Refund refund = new Refund();
+			refund.setId("rfnd_qc" + suffix + i);
+			refund.setPayment(payment);
+			refund.setMerchant(merchant);
+			refund.setAmount(100L);
+			refund.setStatus("processed");
+			refundRepository.save(refund);
+
+			WebhookLog log = new WebhookLog();
+			log.setId("wh_qc" + suffix + i);
+			log.setMerchant(merchant);
+			log.setEvent("payment.success");
+			log.setPayload(JsonNodeFactory.instance.objectNode().put("payment_id", payment.getId()));
+			log.setStatus("success");
+			log.setAttempts(1);
+			log.setLastAttemptAt(OffsetDateTime.now());
+			log.setResponseCode(200);
+			webhookLogRepository.save(log);
+		}
+		return merchant;
+	}
+}
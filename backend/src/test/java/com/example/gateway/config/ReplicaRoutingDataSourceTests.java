@@ -0,0 +1,58 @@
+package com.example.gateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTests {
+
+	private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+
+	private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(replicaAvailable::get);
+
+	@AfterEach
+	void clearTransaction() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void readOnlyTransactionsUseThePrimaryUnlessReplicaIsPreferred() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, dataSource.determineCurrentLookupKey());
+	}
+
+	@Test
+	void preferredReadOnlyTransactionsUseTheReplica() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals(ReplicaRoutingDataSource.Target.REPLICA,
+				ReplicaRoutingDataSource.preferReplica(dataSource::determineCurrentLookupKey));
+	}
+
+	@Test
+	void readWriteTransactionsUseThePrimaryEvenWhenReplicaIsPreferred() {
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY,
+				ReplicaRoutingDataSource.preferReplica(dataSource::determineCurrentLookupKey));
+	}
+
+	@Test
+	void laggingReplicaFallsBackToThePrimary() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		replicaAvailable.set(false);
+
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY,
+				ReplicaRoutingDataSource.preferReplica(dataSource::determineCurrentLookupKey));
+	}
+
+	@Test
+	void preferenceEndsWithTheWork() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		ReplicaRoutingDataSource.preferReplica(dataSource::determineCurrentLookupKey);
+
+		assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, dataSource.determineCurrentLookupKey());
+	}
+}
@@ -0,0 +1,170 @@
+package com.example.gateway.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.gateway.config.JacksonConfig;
+import com.example.gateway.config.JsonCodecs;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class JobCodecTests {
+
+	private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2026, 3, 14, 15, 9, 26, 535_000_000,
+			ZoneOffset.ofHoursMinutes(5, 30));
+
+	private static final UUID MERCHANT_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+	private final JsonCodecs jsonCodecs = new JsonCodecs(JacksonConfig.newObjectMapper(),
+			List.of(ProcessPaymentJob.class, ProcessRefundJob.class, DeliverWebhookJob.class));
+
+	private final JobCodec codec = new JobCodec(jsonCodecs);
+
+	@Test
+	void processPaymentJobRoundTrips() {
+		ProcessPaymentJob job = new ProcessPaymentJob("job_abc123", "pay_H8sK3jD9s2L1pQr");
+		job.setCreatedAt(CREATED_AT);
+
+		ProcessPaymentJob decoded = codec.decode(codec.encode(job), ProcessPaymentJob.class);
+
+		assertEquals("job_abc123", decoded.getJobId());
+		assertEquals("pay_H8sK3jD9s2L1pQr", decoded.getPaymentId());
+		assertTrue(CREATED_AT.isEqual(decoded.getCreatedAt()));
+		assertEquals(JobConstants.JOB_STATUS_PENDING, decoded.getStatus());
+	}
+
+	@Test
+	void processRefundJobRoundTrips() {
+		ProcessRefundJob job = new ProcessRefundJob("job_def456", "rfnd_Xy7zAb9cDe1fGh2i");
+		job.setCreatedAt(CREATED_AT);
+
+		ProcessRefundJob decoded = codec.decode(codec.encode(job), ProcessRefundJob.class);
+
+		assertEquals("job_def456", decoded.getJobId());
+		assertEquals("rfnd_Xy7zAb9cDe1fGh2i", decoded.getRefundId());
+		assertTrue(CREATED_AT.isEqual(decoded.getCreatedAt()));
+	}
+
+	@Test
+	void deliverWebhookJobRoundTrips() {
+		ObjectNode payload = jsonCodecs.createObjectNode();
+		payload.put("event", "payment.success");
+		payload.put("timestamp", 1_773_480_000L);
+		payload.putObject("data").putObject("payment").put("id", "pay_1").put("amount", 50000).put("captured", false);
+		DeliverWebhookJob job = new DeliverWebhookJob("job_ghi789", MERCHANT_ID, "payment.success", payload);
+		job.setCreatedAt(CREATED_AT);
+
+		DeliverWebhookJob decoded = codec.decode(codec.encode(job), DeliverWebhookJob.class);
+
+		assertEquals("job_ghi789", decoded.getJobId());
+		assertEquals(MERCHANT_ID, decoded.getMerchantId());
+		assertEquals("payment.success", decoded.getEvent());
+		// A long that fits an int comes back as an int node, so the trees are compared as JSON
+		assertEquals(payload.toString(), decoded.getPayload().toString());
+		assertTrue(CREATED_AT.isEqual(decoded.getCreatedAt()));
+	}
+
+	@Test
+	void absentCreatedAtAndPayloadStayAbsent() {
+		ProcessPaymentJob payment = new ProcessPaymentJob("job_1", "pay_1");
+		payment.setCreatedAt(null);
+		DeliverWebhookJob webhook = new DeliverWebhookJob("job_2", MERCHANT_ID, "payment.failed", null);
+		webhook.setCreatedAt(null);
+
+		assertNull(codec.decode(codec.encode(payment), ProcessPaymentJob.class).getCreatedAt());
+		DeliverWebhookJob decoded = codec.decode(codec.encode(webhook), DeliverWebhookJob.class);
+		assertNull(decoded.getCreatedAt());
+		assertNull(decoded.getPayload());
+	}
+
+	@Test
+	void anAbsentMerchantIdStaysAbsent() {
+		ObjectNode payload = jsonCodecs.createObjectNode().put("event", "payment.success");
+		DeliverWebhookJob job = new DeliverWebhookJob("job_3", null, "payment.success", payload);
+		job.setCreatedAt(CREATED_AT);
+
+		DeliverWebhookJob decoded = codec.decode(codec.encode(job), DeliverWebhookJob.class);
+
+		assertNull(decoded.getMerchantId());
+		assertEquals("payment.success", decoded.getEvent());
+		assertEquals(payload.toString(), decoded.getPayload().toString());
+		assertTrue(CREATED_AT.isEqual(decoded.getCreatedAt()));
+	}
+
+	@Test
+	void multiByteUtf8StringsRoundTrip() {
+		String jobId = "job_ünïcødé_支付_💳";
+		String paymentId = "pay_" + "é".repeat(200);
+		ProcessPaymentJob job = new ProcessPaymentJob(jobId, paymentId);
+
+		ProcessPaymentJob decoded = codec.decode(codec.encode(job), ProcessPaymentJob.class);
+
+		assertEquals(jobId, decoded.getJobId());
+		assertEquals(paymentId, decoded.getPaymentId());
+	}
+
+	@Test
+	void legacyJsonJobsAreStillRead() {
+		String paymentJson = "{\"jobId\":\"job_old1\",\"paymentId\":\"pay_old1\","
+				+ "\"createdAt\":\"2026-03-14T09:39:26.535Z\",\"status\":\"pending\"}";
+		String webhookJson = "{\"jobId\":\"job_old2\",\"merchantId\":\"" + MERCHANT_ID + "\","
+				+ "\"event\":\"refund.processed\",\"payload\":{\"event\":\"refund.processed\",\"data\":{}},"
+				+ "\"createdAt\":\"2026-03-14T09:39:26.535Z\",\"status\":\"pending\"}";
+
+		ProcessPaymentJob payment = codec.decode(paymentJson.getBytes(StandardCharsets.UTF_8), ProcessPaymentJob.class);
+		DeliverWebhookJob webhook = codec.decode(webhookJson.getBytes(StandardCharsets.UTF_8), DeliverWebhookJob.class);
+
+		assertEquals("pay_old1", payment.getPaymentId());
+		assertTrue(CREATED_AT.isEqual(payment.getCreatedAt()));
+		assertEquals(MERCHANT_ID, webhook.getMerchantId());
+		assertEquals("refund.processed", webhook.getPayload().get("event").asText());
+	}
+
+	@Test
+	void everyTruncationIsRejected() {
+		ObjectNode payload = jsonCodecs.createObjectNode().put("event", "payment.success");
+		byte[] data = codec.encode(new DeliverWebhookJob("job_ünï", MERCHANT_ID, "payment.success", payload));
+
+		for (int length = 0; length < data.length; length++) {
+			byte[] truncated = Arrays.copyOf(data, length);
+			assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated, DeliverWebhookJob.class),
+					"truncated to " + length + " bytes");
+		}
+	}
+
+	@Test
+	void anUnknownVersionOrTypeIsRejected() {
+		byte[] data = codec.encode(new ProcessPaymentJob("job_1", "pay_1"));
+
+		byte[] unknownVersion = data.clone();
+		unknownVersion[0] = 2;
+		byte[] unknownType = data.clone();
+		unknownType[1] = 99;
+
+		assertThrows(IllegalArgumentException.class, () -> codec.decode(unknownVersion, ProcessPaymentJob.class));
+		assertThrows(IllegalArgumentException.class, () -> codec.decode(unknownType, ProcessPaymentJob.class));
+	}
+
+	@Test
+	void aJobOfAnotherTypeIsRejected() {
+		byte[] data = codec.encode(new ProcessRefundJob("job_1", "rfnd_1"));
+
+		assertThrows(IllegalArgumentException.class, () -> codec.decode(data, ProcessPaymentJob.class));
+	}
+
+	@Test
+	void anUnsupportedJobIsNotEncoded() {
+		JsonNode notAJob = jsonCodecs.createObjectNode();
+
+		assertThrows(IllegalArgumentException.class, () -> codec.encode(notAJob));
+	}
+}
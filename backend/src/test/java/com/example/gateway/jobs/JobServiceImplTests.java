@@ -0,0 +1,100 @@
+package com.example.gateway.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.gateway.config.JacksonConfig;
+import com.example.gateway.config.JsonCodecs;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JobServiceImplTests {
+
+	private static final String JOB_ID = "whl_abc123";
+
+	@SuppressWarnings("unchecked")
+	private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+	@SuppressWarnings("unchecked")
+	private final RedisTemplate<String, byte[]> jobRedisTemplate = mock(RedisTemplate.class);
+
+	private final JobShards jobShards = new JobShards(16);
+
+	private final JobServiceImpl jobService = new JobServiceImpl();
+
+	@BeforeEach
+	void wire() {
+		when(redisTemplate.getValueSerializer()).thenAnswer(invocation -> RedisSerializer.string());
+		ReflectionTestUtils.setField(jobService, "redisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(jobService, "jobRedisTemplate", jobRedisTemplate);
+		ReflectionTestUtils.setField(jobService, "jobShards", jobShards);
+		ReflectionTestUtils.setField(jobService, "jobCodec",
+				new JobCodec(new JsonCodecs(JacksonConfig.newObjectMapper(), List.of())));
+	}
+
+	@Test
+	void theQueueEntryStatusAndCounterAreWrittenByTheNxScript() {
+		UUID merchantId = UUID.randomUUID();
+		DeliverWebhookJob retry = new DeliverWebhookJob(JOB_ID, merchantId, "payment.success", null);
+		RedisConnection connection = mock(RedisConnection.class);
+		RedisStringCommands strings = mock(RedisStringCommands.class);
+		RedisScriptingCommands scripting = mock(RedisScriptingCommands.class);
+		when(connection.stringCommands()).thenReturn(strings);
+		when(connection.scriptingCommands()).thenReturn(scripting);
+
+		jobService.enqueueJob(JobConstants.WEBHOOK_QUEUE, JobPriority.LOW, retry, JOB_ID);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<RedisCallback<Object>> pipeline = ArgumentCaptor.forClass(RedisCallback.class);
+		verify(jobRedisTemplate).executePipelined(pipeline.capture());
+		pipeline.getValue().doInRedis(connection);
+
+		ArgumentCaptor<byte[]> script = ArgumentCaptor.forClass(byte[].class);
+		ArgumentCaptor<byte[][]> keysAndArgs = ArgumentCaptor.forClass(byte[][].class);
+		verify(scripting).eval(script.capture(), eq(ReturnType.INTEGER), eq(3), keysAndArgs.capture());
+		assertTrue(new String(script.getValue(), StandardCharsets.UTF_8).contains("'ZADD', KEYS[1], 'NX'"));
+		byte[][] values = keysAndArgs.getValue();
+		String lane = jobShards.laneKey(JobConstants.WEBHOOK_QUEUE, JobPriority.LOW,
+				jobShards.shardOf(merchantId.toString()));
+		assertEquals(lane, utf8(values[0]));
+		assertEquals("job:status:" + JOB_ID, utf8(values[1]));
+		assertEquals("job:counter:" + JobConstants.JOB_STATUS_PENDING, utf8(values[2]));
+		assertEquals(JOB_ID, utf8(values[4]));
+		assertArrayEquals(RedisSerializer.string().serialize(JobConstants.JOB_STATUS_PENDING), values[5]);
+		// Only the script may count the job, so a job that is still queued is not counted twice
+		verify(strings, never()).incr(any());
+	}
+
+	@Test
+	void aRefundJobNeedsAnExplicitShardKey() {
+		ProcessRefundJob refund = new ProcessRefundJob("job_r1", "rfnd_1");
+
+		assertThrows(IllegalArgumentException.class,
+				() -> jobService.enqueueJob(JobConstants.REFUND_QUEUE, refund, "job_r1"));
+		verify(jobRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+	}
+
+	private static String utf8(byte[] value) {
+		return new String(value, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.gateway.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PaymentStatusTests {
+
+	@ParameterizedTest
+	@EnumSource(PaymentStatus.class)
+	void onlyTheLifecycleMovesAreAllowed(PaymentStatus from) {
+		Set<PaymentStatus> expected = switch (from) {
+			case CREATED -> EnumSet.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+			case PENDING -> EnumSet.of(PaymentStatus.PROCESSING);
+			case PROCESSING -> EnumSet.of(PaymentStatus.SUCCESS, PaymentStatus.FAILED);
+			case SUCCESS, FAILED -> EnumSet.noneOf(PaymentStatus.class);
+		};
+
+		for (PaymentStatus to : PaymentStatus.values()) {
+			assertEquals(expected.contains(to), from.canTransitionTo(to), from + " -> " + to);
+		}
+	}
+
+	@Test
+	void onlySuccessAndFailedAreTerminal() {
+		for (PaymentStatus status : PaymentStatus.values()) {
+			assertEquals(status == PaymentStatus.SUCCESS || status == PaymentStatus.FAILED, status.isTerminal(),
+					status::name);
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(PaymentStatus.class)
+	void tokensRoundTrip(PaymentStatus status) {
+		assertEquals(status.name().toLowerCase(), status.getToken());
+		assertEquals(status, PaymentStatus.fromToken(status.getToken()));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "SUCCESS", "Pending", "refunded", "" })
+	void unknownTokensAreRejected(String token) {
+		assertThrows(IllegalArgumentException.class, () -> PaymentStatus.fromToken(token));
+	}
+
+	@Test
+	void aPaymentRefusesAMoveTheTableDoesNotAllow() {
+		Payment payment = new Payment();
+		payment.setId("pay_status_test");
+		payment.setStatus(PaymentStatus.SUCCESS);
+
+		assertThrows(IllegalStateException.class, () -> payment.transitionTo(PaymentStatus.FAILED));
+		assertEquals(PaymentStatus.SUCCESS, payment.getStatus());
+
+		payment.setStatus(PaymentStatus.PENDING);
+		assertThrows(IllegalStateException.class, () -> payment.transitionTo(PaymentStatus.SUCCESS));
+		payment.transitionTo(PaymentStatus.PROCESSING);
+		payment.transitionTo(PaymentStatus.SUCCESS);
+		assertEquals(PaymentStatus.SUCCESS, payment.getStatus());
+	}
+}
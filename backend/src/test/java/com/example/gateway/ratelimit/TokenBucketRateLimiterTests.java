@@ -0,0 +1,150 @@
+package com.example.gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.gateway.repositories.MerchantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+class TokenBucketRateLimiterTests {
+
+	private static final String MERCHANT_KEY = "key_test_abc123";
+
+	private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+	private final MerchantRepository merchantRepository = mock(MerchantRepository.class);
+
+	@BeforeEach
+	void knownMerchant() {
+		when(merchantRepository.findAllApiKeys()).thenReturn(List.of(MERCHANT_KEY));
+	}
+
+	@Test
+	void aLeaseServesTheFollowingRequestsWithoutRedis() {
+		TokenBucketRateLimiter limiter = limiter(60_000);
+		whenScriptRuns().thenReturn(List.of(5L, 90L, 0L));
+
+		RateLimitDecision first = limiter.tryAcquire(MERCHANT_KEY);
+		assertTrue(first.allowed());
+		assertEquals(94, first.remaining());
+		for (int i = 0; i < 4; i++) {
+			assertTrue(limiter.tryAcquire(MERCHANT_KEY).allowed());
+		}
+		verifyScriptRuns(1, "ratelimit:" + MERCHANT_KEY);
+
+		assertTrue(limiter.tryAcquire(MERCHANT_KEY).allowed());
+		verifyScriptRuns(2, "ratelimit:" + MERCHANT_KEY);
+	}
+
+	@Test
+	void aDenialIsCachedForTheRetryAfterPeriod() {
+		TokenBucketRateLimiter limiter = limiter(60_000);
+		whenScriptRuns().thenReturn(List.of(0L, 0L, 1500L));
+
+		RateLimitDecision first = limiter.tryAcquire(MERCHANT_KEY);
+		RateLimitDecision second = limiter.tryAcquire(MERCHANT_KEY);
+
+		assertFalse(first.allowed());
+		assertEquals(2, first.retryAfterSeconds());
+		assertFalse(second.allowed());
+		verifyScriptRuns(1, "ratelimit:" + MERCHANT_KEY);
+	}
+
+	@Test
+	void anUnreachableRedisFailsOpenUntilTheWindowEnds() {
+		TokenBucketRateLimiter limiter = limiter(60_000);
+		whenScriptRuns().thenThrow(new RedisConnectionFailureException("connection refused"));
+
+		RateLimitDecision first = limiter.tryAcquire(MERCHANT_KEY);
+		RateLimitDecision second = limiter.tryAcquire(MERCHANT_KEY);
+
+		assertTrue(first.allowed());
+		assertEquals(100, first.remaining());
+		assertTrue(second.allowed());
+		verifyScriptRuns(1, "ratelimit:" + MERCHANT_KEY);
+	}
+
+	@Test
+	void unknownKeysShareOneBucket() {
+		TokenBucketRateLimiter limiter = limiter(60_000);
+		whenScriptRuns().thenReturn(List.of(0L, 0L, 60_000L));
+
+		assertFalse(limiter.tryAcquire("made-up-1").allowed());
+		assertFalse(limiter.tryAcquire("made-up-2").allowed());
+
+		verifyScriptRuns(1, TokenBucketRateLimiter.UNKNOWN_KEYS_REDIS_KEY);
+		verify(merchantRepository, times(1)).findAllApiKeys();
+	}
+
+	@Test
+	void aNewMerchantGetsItsOwnBucketOnceTheKeysAreReloaded() {
+		TokenBucketRateLimiter limiter = limiter(0);
+		when(merchantRepository.findAllApiKeys()).thenReturn(List.of()).thenReturn(List.of(MERCHANT_KEY));
+		whenScriptRuns().thenReturn(List.of(1L, 99L, 0L));
+
+		assertTrue(limiter.tryAcquire("made-up").allowed());
+		assertTrue(limiter.tryAcquire(MERCHANT_KEY).allowed());
+
+		verifyScriptRuns(1, TokenBucketRateLimiter.UNKNOWN_KEYS_REDIS_KEY);
+		verifyScriptRuns(1, "ratelimit:" + MERCHANT_KEY);
+	}
+
+	@Test
+	void requestsOfOneMerchantDoNotWaitForEachOthersRedisCall() throws Exception {
+		TokenBucketRateLimiter limiter = limiter(60_000);
+		CountDownLatch firstCallStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstCall = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		whenScriptRuns().thenAnswer(invocation -> {
+			if (calls.incrementAndGet() == 1) {
+				firstCallStarted.countDown();
+				releaseFirstCall.await(5, TimeUnit.SECONDS);
+			}
+			return List.of(1L, 50L, 0L);
+		});
+
+		CompletableFuture<RateLimitDecision> first = CompletableFuture.supplyAsync(() -> limiter.tryAcquire(MERCHANT_KEY));
+		assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+		RateLimitDecision second = CompletableFuture.supplyAsync(() -> limiter.tryAcquire(MERCHANT_KEY))
+				.get(5, TimeUnit.SECONDS);
+		releaseFirstCall.countDown();
+
+		assertTrue(second.allowed());
+		assertTrue(first.get(5, TimeUnit.SECONDS).allowed());
+		verifyScriptRuns(2, "ratelimit:" + MERCHANT_KEY);
+	}
+
+	private TokenBucketRateLimiter limiter(long knownKeysReloadMillis) {
+		return new TokenBucketRateLimiter(redisTemplate, merchantRepository, new SimpleMeterRegistry(), true, 100, 50,
+				"", 5, 60_000, 60_000, knownKeysReloadMillis, 10_000);
+	}
+
+	@SuppressWarnings("unchecked")
+	private OngoingStubbing<Object> whenScriptRuns() {
+		return when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void verifyScriptRuns(int times, String redisKey) {
+		verify(redisTemplate, times(times)).execute(any(RedisScript.class), eq(List.of(redisKey)), any(), any(), any());
+	}
+}
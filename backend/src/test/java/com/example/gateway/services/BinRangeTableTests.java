@@ -0,0 +1,137 @@
+package com.example.gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.gateway.models.CardNetwork;
+import com.example.gateway.services.BinRangeTable.BinRange;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BinRangeTableTests {
+
+	@Test
+	void theNarrowestRangeWinsWhateverTheOrder() {
+		BinRange rupay = new BinRange(60000000, 60999999, CardNetwork.RUPAY);
+		BinRange discover = new BinRange(60110000, 60119999, CardNetwork.DISCOVER);
+
+		for (BinRangeTable table : List.of(BinRangeTable.of(List.of(rupay, discover)),
+				BinRangeTable.of(List.of(discover, rupay)))) {
+			assertEquals(3, table.size());
+			assertEquals(CardNetwork.RUPAY, table.lookup(60000000));
+			assertEquals(CardNetwork.RUPAY, table.lookup(60109999));
+			assertEquals(CardNetwork.DISCOVER, table.lookup(60110000));
+			assertEquals(CardNetwork.DISCOVER, table.lookup(60119999));
+			assertEquals(CardNetwork.RUPAY, table.lookup(60120000));
+			assertEquals(CardNetwork.RUPAY, table.lookup(60999999));
+		}
+	}
+
+	@Test
+	void nestedRangesResolveLevelByLevel() {
+		BinRangeTable table = BinRangeTable.of(List.of(
+				new BinRange(45670000, 45679999, CardNetwork.AMEX),
+				new BinRange(40000000, 49999999, CardNetwork.VISA),
+				new BinRange(45000000, 45999999, CardNetwork.MASTERCARD)));
+
+		assertEquals(5, table.size());
+		assertEquals(3, table.sourceRanges());
+		assertEquals(CardNetwork.VISA, table.lookup(44999999));
+		assertEquals(CardNetwork.MASTERCARD, table.lookup(45000000));
+		assertEquals(CardNetwork.MASTERCARD, table.lookup(45669999));
+		assertEquals(CardNetwork.AMEX, table.lookup(45670000));
+		assertEquals(CardNetwork.AMEX, table.lookup(45679999));
+		assertEquals(CardNetwork.MASTERCARD, table.lookup(45680000));
+		assertEquals(CardNetwork.VISA, table.lookup(46000000));
+	}
+
+	@Test
+	void aNarrowRangeAtTheEdgeOfAWiderOneLeavesTheRestIntact() {
+		BinRangeTable table = BinRangeTable.of(List.of(
+				new BinRange(50000000, 59999999, CardNetwork.MASTERCARD),
+				new BinRange(50000000, 50009999, CardNetwork.MAESTRO),
+				new BinRange(59990000, 59999999, CardNetwork.DINERS)));
+
+		assertEquals(CardNetwork.MAESTRO, table.lookup(50000000));
+		assertEquals(CardNetwork.MAESTRO, table.lookup(50009999));
+		assertEquals(CardNetwork.MASTERCARD, table.lookup(50010000));
+		assertEquals(CardNetwork.MASTERCARD, table.lookup(59989999));
+		assertEquals(CardNetwork.DINERS, table.lookup(59990000));
+		assertEquals(CardNetwork.DINERS, table.lookup(59999999));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"50999999, UNKNOWN",
+			"51000000, MASTERCARD",
+			"55999999, MASTERCARD",
+			"56000000, UNKNOWN",
+			"22209999, UNKNOWN",
+			"22210000, MASTERCARD",
+			"27209999, MASTERCARD",
+			"27210000, UNKNOWN",
+			"00000000, UNKNOWN",
+			"99999999, UNKNOWN" })
+	void rangeEndsAreInclusive(int bin, CardNetwork expected) throws IOException {
+		BinRangeTable table = parse("51,55,MASTERCARD\n2221,2720,MASTERCARD\n");
+
+		assertEquals(expected, table.lookup(bin));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"4, 4, 40000000, 49999999",
+			"51, 55, 51000000, 55999999",
+			"353, 353, 35300000, 35399999",
+			"508500, 508999, 50850000, 50899999",
+			"12345678, 12345678, 12345678, 12345678" })
+	void prefixesArePaddedToEightDigits(String start, String end, int first, int last) throws IOException {
+		BinRangeTable table = parse(start + "," + end + ",VISA");
+
+		assertEquals(1, table.size());
+		assertEquals(CardNetwork.UNKNOWN, table.lookup(first - 1));
+		assertEquals(CardNetwork.VISA, table.lookup(first));
+		assertEquals(CardNetwork.VISA, table.lookup(last));
+		assertEquals(CardNetwork.UNKNOWN, table.lookup(last + 1));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"123456789,123456789,VISA",
+			",4,VISA",
+			"4a,4a,VISA",
+			"55,51,MASTERCARD",
+			"4,4,UNKNOWN",
+			"4,4,NOT_A_NETWORK",
+			"4,VISA" })
+	void invalidLinesAreRejected(String line) {
+		assertThrows(IllegalArgumentException.class, () -> parse("# header\n\n" + line + "\n"));
+	}
+
+	@Test
+	void theBundledTableKeepsTheNarrowestNetwork() {
+		BinRangeTable table = BinRangeTable.defaults();
+
+		assertEquals(CardNetwork.VISA, table.lookup(41111111));
+		assertEquals(CardNetwork.RUPAY, table.lookup(60700000));
+		assertEquals(CardNetwork.DISCOVER, table.lookup(60110000));
+		assertEquals(CardNetwork.MAESTRO, table.lookup(50180000));
+		assertEquals(CardNetwork.DINERS, table.lookup(36000000));
+		assertEquals(CardNetwork.RUPAY, table.lookup(50850000));
+	}
+
+	@Test
+	void anEmptyTableKnowsNoNetwork() {
+		assertEquals(CardNetwork.UNKNOWN, BinRangeTable.of(List.of()).lookup(41111111));
+	}
+
+	private static BinRangeTable parse(String csv) throws IOException {
+		return BinRangeTable.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+	}
+}
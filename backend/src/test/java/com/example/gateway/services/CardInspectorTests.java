@@ -0,0 +1,141 @@
+package com.example.gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.gateway.models.CardNetwork;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CardInspectorTests {
+
+	@ParameterizedTest
+	@CsvSource({
+			"4111111111111111, VISA",
+			"4222222222222, VISA",
+			"5555555555554444, MASTERCARD",
+			"2223003122003222, MASTERCARD",
+			"378282246310005, AMEX",
+			"6011111111111117, DISCOVER",
+			"6521111111111110, RUPAY" })
+	void validNumbersPassWithTheirNetwork(String number, CardNetwork network) {
+		CardInspection inspection = CardInspector.inspect(number);
+
+		assertTrue(inspection.isValid());
+		assertTrue(inspection.isLuhnValid());
+		assertEquals(network, inspection.getNetwork());
+		assertEquals(number.length(), inspection.getLength());
+		assertEquals(number.substring(number.length() - 4), inspection.getLast4());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "4111111111111112", "4111111111111121", "378282246310006", "0000000000000001" })
+	void aWrongCheckDigitFailsLuhn(String number) {
+		CardInspection inspection = CardInspector.inspect(number);
+
+		assertTrue(inspection.isDigitsOnly());
+		assertFalse(inspection.isLuhnValid());
+		assertFalse(inspection.isValid());
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "12, false", "13, true", "16, true", "19, true", "20, false" })
+	void onlyLengthsFrom13To19AreValid(int length, boolean valid) {
+		String number = withCheckDigit("4" + "1".repeat(length - 2));
+
+		CardInspection inspection = CardInspector.inspect(number);
+
+		assertEquals(length, inspection.getLength());
+		assertTrue(inspection.isLuhnValid());
+		assertEquals(valid, inspection.isValid());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { " ", "-", "\t", "\n", "\r", "\f", "\u000B" })
+	void everySeparatorIsSkipped(String separator) {
+		String number = "4111" + separator + "1111" + separator + separator + "1111" + separator + "1111";
+
+		CardInspection inspection = CardInspector.inspect(number);
+
+		assertTrue(inspection.isValid());
+		assertEquals(16, inspection.getLength());
+		assertEquals(41111111, inspection.getBin());
+		assertEquals("1111", inspection.getLast4());
+		assertEquals("4111111111111111", inspection.getCleanedNumber());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "4111a11111111111", "4111.1111.1111.1111", "4111_1111_1111_1111", "４111111111111111",
+			"+4111111111111111" })
+	void anyOtherCharacterMakesTheNumberInvalid(String number) {
+		CardInspection inspection = CardInspector.inspect(number);
+
+		assertFalse(inspection.isDigitsOnly());
+		assertFalse(inspection.isLuhnValid());
+		assertFalse(inspection.isValid());
+	}
+
+	@ParameterizedTest
+	@NullAndEmptySource
+	@ValueSource(strings = { "   ", "- -" })
+	void nothingToInspectIsInvalid(String number) {
+		CardInspection inspection = CardInspector.inspect(number);
+
+		assertFalse(inspection.isValid());
+		assertFalse(inspection.isDigitsOnly());
+		assertFalse(inspection.isLuhnValid());
+		assertEquals(0, inspection.getLength());
+		assertEquals(CardNetwork.UNKNOWN, inspection.getNetwork());
+		assertNull(inspection.getLast4());
+	}
+
+	@Test
+	void shortNumbersPadTheBinWithZeros() {
+		CardInspection inspection = CardInspector.inspect("601");
+
+		assertEquals(60100000, inspection.getBin());
+		assertEquals(CardNetwork.RUPAY, inspection.getNetwork());
+		assertNull(inspection.getLast4());
+	}
+
+	@Test
+	void luhnAgreesWithTheTextbookCheckOnRandomNumbers() {
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			StringBuilder number = new StringBuilder();
+			int length = 1 + random.nextInt(22);
+			for (int d = 0; d < length; d++) {
+				number.append((char) ('0' + random.nextInt(10)));
+			}
+
+			assertEquals(luhnSum(number.toString()) % 10 == 0, CardInspector.inspect(number).isLuhnValid(),
+					number::toString);
+		}
+	}
+
+	private static String withCheckDigit(String payload) {
+		int check = (10 - luhnSum(payload + "0") % 10) % 10;
+		return payload + check;
+	}
+
+	private static int luhnSum(String digits) {
+		int sum = 0;
+		for (int i = 0; i < digits.length(); i++) {
+			int digit = digits.charAt(digits.length() - 1 - i) - '0';
+			if (i % 2 == 1) {
+				digit *= 2;
+				if (digit > 9) {
+					digit -= 9;
+				}
+			}
+			sum += digit;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class MicroBatcherTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void itemsQueuedWhileABatchIsWrittenShareTheNextOne() throws Exception {
+		List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch firstWriteStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+		MicroBatcher<Integer> batcher = batcher(batch -> {
+			batches.add(List.copyOf(batch));
+			if (batches.size() == 1) {
+				firstWriteStarted.countDown();
+				await(releaseFirstWrite);
+			}
+		});
+
+		CompletableFuture<Void> first = batcher.submit(0);
+		assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+		List<CompletableFuture<Void>> rest = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			rest.add(batcher.submit(i));
+		}
+		releaseFirstWrite.countDown();
+		first.get(5, TimeUnit.SECONDS);
+		CompletableFuture.allOf(rest.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		batcher.close();
+
+		assertEquals(List.of(List.of(0), List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)), batches);
+	}
+
+	@Test
+	void aFailedBatchIsRetriedItemByItemSoOnlyTheBadItemFails() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		MicroBatcher<Integer> batcher = batcher(batch -> {
+			await(release);
+			if (batch.contains(13)) {
+				throw new IllegalStateException("duplicate key");
+			}
+			written.addAll(batch);
+		});
+
+		CompletableFuture<Void> good = batcher.submit(12);
+		CompletableFuture<Void> bad = batcher.submit(13);
+		CompletableFuture<Void> alsoGood = batcher.submit(14);
+		release.countDown();
+
+		good.get(5, TimeUnit.SECONDS);
+		alsoGood.get(5, TimeUnit.SECONDS);
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof IllegalStateException);
+		assertFalse(written.contains(13));
+		assertTrue(written.containsAll(List.of(12, 14)));
+		batcher.close();
+	}
+
+	@Test
+	void batchesDoNotExceedTheMaximumSize() throws Exception {
+		List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+		MicroBatcher<Integer> batcher = new MicroBatcher<>("test", 4, Duration.ofMillis(50), 100,
+				batch -> sizes.add(batch.size()), meterRegistry);
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(batcher.submit(i));
+		}
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		batcher.close();
+
+		assertEquals(10, sizes.stream().mapToInt(Integer::intValue).sum());
+		assertTrue(sizes.stream().allMatch(size -> size <= 4), "batch sizes " + sizes);
+	}
+
+	@Test
+	void anItemQueuedWhileTheBatcherClosesIsRejected() {
+		List<MicroBatcher<Integer>> batcher = new ArrayList<>();
+		// close() runs to completion between submit's running check and its offer
+		ArrayBlockingQueue<MicroBatcher.Entry<Integer>> queue = new ArrayBlockingQueue<>(100) {
+			@Override
+			public boolean offer(MicroBatcher.Entry<Integer> entry) {
+				batcher.get(0).close();
+				return super.offer(entry);
+			}
+		};
+		batcher.add(new MicroBatcher<>("test", 64, Duration.ofMillis(20), queue, batch -> {
+		}, meterRegistry));
+
+		CompletableFuture<Void> late = batcher.get(0).submit(1);
+
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof RejectedExecutionException);
+		assertTrue(queue.isEmpty());
+	}
+
+	private MicroBatcher<Integer> batcher(Consumer<List<Integer>> writer) {
+		return new MicroBatcher<>("test", 64, Duration.ofMillis(20), 100, writer, meterRegistry);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.gateway.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.gateway.config.JacksonConfig;
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.dto.CreatePaymentRequest;
+import com.example.gateway.dto.PaymentResponse;
+import com.example.gateway.jobs.JobServiceImpl;
+import com.example.gateway.models.IdempotencyKey;
+import com.example.gateway.models.Merchant;
+import com.example.gateway.models.Order;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentMethod;
+import com.example.gateway.models.PaymentStatus;
+import com.example.gateway.repositories.IdempotencyKeyRepository;
+import com.example.gateway.repositories.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class PaymentCreationPipelineTests {
+
+	private static final String API_KEY = "key_test_abc123";
+
+	private static final String API_SECRET = "secret_test_xyz789";
+
+	private static final String IDEMPOTENCY_KEY = "idem-1";
+
+	private final JsonCodecs jsonCodecs = new JsonCodecs(JacksonConfig.newObjectMapper(), List.of());
+
+	private final AuthenticationService authenticationService = mock(AuthenticationService.class);
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+
+	private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+
+	private final PaymentService paymentService = mock(PaymentService.class);
+
+	private final IDGeneratorService idGeneratorService = mock(IDGeneratorService.class);
+
+	private final JobServiceImpl jobService = mock(JobServiceImpl.class);
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private final Merchant merchant = new Merchant(UUID.randomUUID(), "Test Merchant", "test@example.com", API_KEY,
+			API_SECRET, null, null, true, OffsetDateTime.now(), OffsetDateTime.now());
+
+	private final Order order = new Order("order_1", merchant, 50000, "INR", null, null, "created",
+			OffsetDateTime.now(), OffsetDateTime.now());
+
+	private PaymentCreationPipeline pipeline;
+
+	@BeforeEach
+	void pipeline() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		when(authenticationService.authenticateMerchant(API_KEY, API_SECRET)).thenReturn(merchant);
+		when(idempotencyKeyRepository.findByKeyAndMerchantApiKey(IDEMPOTENCY_KEY, API_KEY)).thenReturn(Optional.empty());
+		when(orderRepository.findById("order_1")).thenReturn(Optional.of(order));
+		when(idGeneratorService.newPaymentId()).thenReturn("pay_new");
+		when(paymentService.newPendingPayment(eq(merchant), eq(order), eq("pay_new"), anyString(), any()))
+				.thenReturn(pendingPayment("pay_new"));
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO idempotency_keys"), anyList(), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class)))
+				.thenThrow(new DuplicateKeyException("duplicate key value violates unique constraint"));
+		pipeline = new PaymentCreationPipeline(authenticationService, orderRepository, idempotencyKeyRepository,
+				paymentService, idGeneratorService, jobService, mock(PaymentStatusCache.class), jsonCodecs,
+				jdbcTemplate, transactionManager, new SimpleMeterRegistry(), 2, 1, 64, 16);
+	}
+
+	@AfterEach
+	void stop() {
+		pipeline.stop();
+	}
+
+	@Test
+	void aRequestThatLosesTheIdempotencyKeyRaceReplaysTheStoredResponse() throws Exception {
+		JsonNode stored = jsonCodecs.valueToTree(PaymentResponse.from(pendingPayment("pay_first")));
+		when(idempotencyKeyRepository.findValidByKeyAndMerchant(eq(IDEMPOTENCY_KEY), eq(merchant.getId()), any()))
+				.thenReturn(Optional.of(new IdempotencyKey(IDEMPOTENCY_KEY, merchant, stored, OffsetDateTime.now(),
+						OffsetDateTime.now().plusHours(24))));
+
+		Object body = pipeline.create(API_KEY, API_SECRET, IDEMPOTENCY_KEY, upiRequest()).get(5, TimeUnit.SECONDS);
+
+		assertEquals(stored, body);
+		verify(jobService, never()).enqueueJob(anyString(), any(), anyString());
+	}
+
+	@Test
+	void aDuplicateKeyWithoutAStoredResponseStillFails() {
+		when(idempotencyKeyRepository.findValidByKeyAndMerchant(eq(IDEMPOTENCY_KEY), eq(merchant.getId()), any()))
+				.thenReturn(Optional.empty());
+
+		ExecutionException failure = assertThrows(ExecutionException.class,
+				() -> pipeline.create(API_KEY, API_SECRET, IDEMPOTENCY_KEY, upiRequest()).get(5, TimeUnit.SECONDS));
+
+		assertInstanceOf(DuplicateKeyException.class, failure.getCause());
+	}
+
+	private CreatePaymentRequest upiRequest() {
+		CreatePaymentRequest request = new CreatePaymentRequest();
+		request.setOrderId(order.getId());
+		request.setMethod("upi");
+		request.setVpa("user@paytm");
+		return request;
+	}
+
+	private Payment pendingPayment(String id) {
+		Payment payment = new Payment();
+		payment.setId(id);
+		payment.setOrder(order);
+		payment.setMerchant(merchant);
+		payment.setAmount(order.getAmount());
+		payment.setCurrency(order.getCurrency());
+		payment.setMethod(PaymentMethod.UPI);
+		payment.setStatus(PaymentStatus.PENDING);
+		payment.setCreatedAt(OffsetDateTime.now());
+		payment.setUpdatedAt(OffsetDateTime.now());
+		return payment;
+	}
+}
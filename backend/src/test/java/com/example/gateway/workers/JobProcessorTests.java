@@ -0,0 +1,136 @@
+package com.example.gateway.workers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.jobs.JobCodec;
+import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobShards;
+import com.example.gateway.jobs.ProcessPaymentJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JobProcessorTests {
+
+	private static final String QUEUE = JobConstants.PAYMENT_QUEUE;
+
+	private static final int SHARD = 3;
+
+	private static final String LANE = QUEUE + ":" + SHARD;
+
+	private static final String JOB_ID = "job_abc123";
+
+	private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+	@SuppressWarnings("unchecked")
+	private final ZSetOperations<String, String> queues = mock(ZSetOperations.class);
+
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, String> values = mock(ValueOperations.class);
+
+	@SuppressWarnings("unchecked")
+	private final RedisTemplate<String, byte[]> jobRedisTemplate = mock(RedisTemplate.class);
+
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, byte[]> jobValues = mock(ValueOperations.class);
+
+	private final JobCodec jobCodec = new JobCodec(new JsonCodecs(new ObjectMapper(), List.of()));
+
+	private final PaymentWorker paymentWorker = mock(PaymentWorker.class);
+
+	private final JobProcessor processor = new JobProcessor();
+
+	@BeforeEach
+	void queuedJob() {
+		when(redisTemplate.opsForZSet()).thenReturn(queues);
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(redisTemplate.executePipelined(any(RedisCallback.class)))
+				.thenReturn(List.of(Set.of(new DefaultTypedTuple<>(JOB_ID, (double) System.currentTimeMillis()))),
+						List.of(Set.of()));
+		ShardLeaseManager shardLeases = mock(ShardLeaseManager.class);
+		when(shardLeases.ownedShards()).thenReturn(Set.of(SHARD));
+		when(shardLeases.begin(SHARD)).thenReturn(true);
+		when(jobRedisTemplate.opsForValue()).thenReturn(jobValues);
+		when(jobValues.get(JobConstants.JOB_DATA_PREFIX + JOB_ID))
+				.thenReturn(jobCodec.encode(new ProcessPaymentJob(JOB_ID, "pay_1")));
+		ReflectionTestUtils.setField(processor, "priorityMode", "weighted");
+		ReflectionTestUtils.setField(processor, "highWeight", 8);
+		ReflectionTestUtils.setField(processor, "redisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(processor, "jobRedisTemplate", jobRedisTemplate);
+		ReflectionTestUtils.setField(processor, "jobCodec", jobCodec);
+		ReflectionTestUtils.setField(processor, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(processor, "heartbeatService", mock(WorkerHeartbeatService.class));
+		ReflectionTestUtils.setField(processor, "shardLeases", shardLeases);
+		ReflectionTestUtils.setField(processor, "jobShards", new JobShards(16));
+		ReflectionTestUtils.setField(processor, "paymentWorker", paymentWorker);
+	}
+
+	@Test
+	void aProcessedJobIsRemoved() {
+		processor.processPaymentJobs();
+
+		verify(paymentWorker).processPayment(any(ProcessPaymentJob.class));
+		verify(queues).remove(LANE, JOB_ID);
+		verify(redisTemplate).delete(List.of(JobConstants.JOB_DATA_PREFIX + JOB_ID,
+				JobConstants.JOB_ATTEMPTS_PREFIX + JOB_ID));
+	}
+
+	@Test
+	void aJobWhoseWorkerThrowsStaysQueuedUntilItsBackoffHasPassed() {
+		doThrow(new QueryTimeoutException("database timed out")).when(paymentWorker).processPayment(any());
+		when(values.increment(JobConstants.JOB_ATTEMPTS_PREFIX + JOB_ID)).thenReturn(1L);
+		long before = System.currentTimeMillis();
+
+		processor.processPaymentJobs();
+
+		ArgumentCaptor<Double> dueAt = ArgumentCaptor.forClass(Double.class);
+		verify(queues).add(eq(LANE), eq(JOB_ID), dueAt.capture());
+		assertTrue(dueAt.getValue() >= before + JobConstants.JOB_RETRY_BASE_DELAY_MS);
+		verify(queues, never()).remove(anyString(), any());
+		verify(redisTemplate, never()).delete(any(List.class));
+	}
+
+	@Test
+	void aJobThatKeepsFailingMovesToTheDeadLetterSet() {
+		doThrow(new IllegalStateException("boom")).when(paymentWorker).processPayment(any());
+		when(values.increment(JobConstants.JOB_ATTEMPTS_PREFIX + JOB_ID)).thenReturn((long) JobConstants.MAX_JOB_ATTEMPTS);
+
+		processor.processPaymentJobs();
+
+		verify(queues).add(eq(QUEUE + JobConstants.DEAD_LETTER_SUFFIX), eq(JOB_ID), anyDouble());
+		verify(queues).remove(LANE, JOB_ID);
+		verify(redisTemplate, never()).delete(any(List.class));
+	}
+
+	@Test
+	void aJobWithoutDataIsDropped() {
+		when(jobValues.get(JobConstants.JOB_DATA_PREFIX + JOB_ID)).thenReturn(null);
+
+		processor.processPaymentJobs();
+
+		verify(paymentWorker, never()).processPayment(any());
+		verify(queues).remove(LANE, JOB_ID);
+	}
+}
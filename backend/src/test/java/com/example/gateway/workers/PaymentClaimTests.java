@@ -0,0 +1,138 @@
+package com.example.gateway.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.gateway.AbstractContainerTests;
+import com.example.gateway.models.Merchant;
+import com.example.gateway.models.Order;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentMethod;
+import com.example.gateway.models.PaymentStatus;
+import com.example.gateway.models.WebhookLog;
+import com.example.gateway.repositories.MerchantRepository;
+import com.example.gateway.repositories.OrderRepository;
+import com.example.gateway.repositories.PaymentRepository;
+import com.example.gateway.repositories.WebhookLogRepository;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs PaymentRepository.claimForProcessing and PaymentCompletionSink against Postgres: only the
+ * latest claim's outcome is written, and a finished payment cannot be claimed again.
+ */
+@SpringBootTest(properties = "rate-limit.enabled=false")
+class PaymentClaimTests extends AbstractContainerTests {
+
+	@Autowired
+	MerchantRepository merchantRepository;
+
+	@Autowired
+	OrderRepository orderRepository;
+
+	@Autowired
+	PaymentRepository paymentRepository;
+
+	@Autowired
+	WebhookLogRepository webhookLogRepository;
+
+	@Autowired
+	PaymentCompletionSink completionSink;
+
+	@Test
+	void aSecondClaimBumpsTheVersionAndDropsTheFirstClaimantsOutcome() throws Exception {
+		Payment seeded = seedPayment(PaymentStatus.PENDING);
+
+		assertThat(claim(seeded)).isEqualTo(1);
+		Payment firstClaim = reload(seeded);
+		assertThat(firstClaim.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+		assertThat(firstClaim.getVersion()).isEqualTo(seeded.getVersion() + 1);
+
+		assertThat(claim(seeded)).isEqualTo(1);
+		Payment secondClaim = reload(seeded);
+		assertThat(secondClaim.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+		assertThat(secondClaim.getVersion()).isEqualTo(firstClaim.getVersion() + 1);
+
+		firstClaim.transitionTo(PaymentStatus.SUCCESS);
+		firstClaim.setUpdatedAt(OffsetDateTime.now());
+		secondClaim.transitionTo(PaymentStatus.FAILED);
+		secondClaim.setErrorCode("PAYMENT_FAILED");
+		secondClaim.setUpdatedAt(OffsetDateTime.now());
+		completionSink.complete(firstClaim);
+		completionSink.complete(secondClaim);
+
+		Payment written = awaitStatus(seeded, PaymentStatus.FAILED);
+		assertThat(written.getErrorCode()).isEqualTo("PAYMENT_FAILED");
+		assertThat(written.getVersion()).isEqualTo(secondClaim.getVersion() + 1);
+		assertThat(webhookLogRepository.findByMerchantId(seeded.getMerchant().getId()))
+				.extracting(WebhookLog::getEvent)
+				.containsExactly("payment.failed");
+	}
+
+	@Test
+	void aFinishedPaymentIsNotClaimedAgain() {
+		for (PaymentStatus finished : new PaymentStatus[] { PaymentStatus.SUCCESS, PaymentStatus.FAILED }) {
+			Payment seeded = seedPayment(finished);
+
+			assertThat(claim(seeded)).isZero();
+			Payment unchanged = reload(seeded);
+			assertThat(unchanged.getStatus()).isEqualTo(finished);
+			assertThat(unchanged.getVersion()).isEqualTo(seeded.getVersion());
+		}
+	}
+
+	@Test
+	void aMissingPaymentIsNotClaimed() {
+		assertThat(paymentRepository.claimForProcessing("pay_missing" + UUID.randomUUID().toString().substring(0, 8),
+				OffsetDateTime.now().minusDays(1), OffsetDateTime.now())).isZero();
+	}
+
+	private int claim(Payment payment) {
+		return paymentRepository.claimForProcessing(payment.getId(), payment.getCreatedAt().minusDays(1),
+				OffsetDateTime.now());
+	}
+
+	private Payment reload(Payment payment) {
+		return paymentRepository.findById(payment.getId()).orElseThrow();
+	}
+
+	// The sink writes on its own thread once its batch window has passed
+	private Payment awaitStatus(Payment payment, PaymentStatus status) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		Payment current = reload(payment);
+		while (current.getStatus() != status && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			current = reload(payment);
+		}
+		assertThat(current.getStatus()).isEqualTo(status);
+		return current;
+	}
+
+	private Payment seedPayment(PaymentStatus status) {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		Merchant merchant = new Merchant();
+		merchant.setName("Claim " + suffix);
+		merchant.setEmail("claim_" + suffix + "@example.com");
+		merchant.setApiKey("key_claim_" + suffix);
+		merchant.setApiSecret("secret_claim_" + suffix);
+		merchant = merchantRepository.save(merchant);
+
+		Order order = new Order();
+		order.setId("order_claim" + suffix);
+		order.setMerchant(merchant);
+		order.setAmount(50000);
+		order = orderRepository.save(order);
+
+		Payment payment = new Payment();
+		payment.setId("pay_claim" + suffix);
+		payment.setOrder(order);
+		payment.setMerchant(merchant);
+		payment.setAmount(50000);
+		payment.setMethod(PaymentMethod.UPI);
+		payment.setStatus(status);
+		return paymentRepository.save(payment);
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.gateway.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.gateway.jobs.DeliverWebhookJob;
+import com.example.gateway.jobs.JobConstants;
+import com.example.gateway.jobs.JobPriority;
+import com.example.gateway.jobs.JobServiceImpl;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentStatus;
+import com.example.gateway.services.PaymentStatusCache;
+import com.example.gateway.services.WebhookServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class PaymentCompletionSinkTests {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private final WebhookServiceImpl webhookService = mock(WebhookServiceImpl.class);
+
+	private final JobServiceImpl jobService = mock(JobServiceImpl.class);
+
+	private final PaymentStatusCache paymentStatusCache = mock(PaymentStatusCache.class);
+
+	private PaymentCompletionSink sink;
+
+	@BeforeEach
+	void sink() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		// A long window and a batch of two, so the two outcomes below are written together
+		sink = new PaymentCompletionSink(jdbcTemplate, transactionManager, webhookService, jobService,
+				paymentStatusCache, new SimpleMeterRegistry(), 60_000, 2, 16);
+	}
+
+	@AfterEach
+	void stop() {
+		sink.stop();
+	}
+
+	@Test
+	void outcomesAreWrittenByOneUpdateAndTheirWebhooksEnqueuedTogether() {
+		Payment first = completed("pay_1");
+		Payment second = completed("pay_2");
+		DeliverWebhookJob webhook = new DeliverWebhookJob("whj_1", UUID.randomUUID(), "payment.success", null);
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+				.thenReturn(List.of("pay_1", "pay_2"));
+		when(webhookService.savePaymentOutcomeWebhookLogs(List.of(first, second))).thenReturn(Map.of("whj_1", webhook));
+
+		sink.complete(first);
+		sink.complete(second);
+
+		verify(jobService, timeout(5000)).enqueueJobs(JobConstants.WEBHOOK_QUEUE, JobPriority.HIGH,
+				Map.of("whj_1", webhook));
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate).queryForList(sql.capture(), eq(String.class), arguments.capture());
+		assertTrue(sql.getValue().contains("FROM (VALUES (?, ?::timestamptz, ?::bigint, ?, ?, ?, ?::timestamptz), (?,"));
+		assertEquals(14, arguments.getValue().length);
+		verify(paymentStatusCache).putPayment(first);
+		verify(paymentStatusCache).putPayment(second);
+	}
+
+	@Test
+	void aPaymentTheUpdateDidNotMatchGetsNoWebhookOrCacheEntry() {
+		Payment found = completed("pay_1");
+		Payment missing = completed("pay_gone");
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+				.thenReturn(List.of("pay_1"));
+		when(webhookService.savePaymentOutcomeWebhookLogs(List.of(found))).thenReturn(Map.of());
+
+		sink.complete(found);
+		sink.complete(missing);
+
+		verify(jobService, timeout(5000)).enqueueJobs(JobConstants.WEBHOOK_QUEUE, JobPriority.HIGH, Map.of());
+		verify(paymentStatusCache).putPayment(found);
+		verify(paymentStatusCache, never()).putPayment(missing);
+	}
+
+	private static Payment completed(String id) {
+		Payment payment = new Payment();
+		payment.setId(id);
+		payment.setStatus(PaymentStatus.SUCCESS);
+		payment.setCreatedAt(OffsetDateTime.now().minusSeconds(5));
+		payment.setUpdatedAt(OffsetDateTime.now());
+		return payment;
+	}
+}
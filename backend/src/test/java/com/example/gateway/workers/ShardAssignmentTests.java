@@ -0,0 +1,58 @@
+package com.example.gateway.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ShardAssignmentTests {
+
+	private static final int SHARDS = 16;
+
+	@Test
+	void everyShardHasExactlyOneOwner() {
+		List<String> nodes = List.of("worker-a", "worker-b", "worker-c");
+
+		Set<Integer> assigned = new HashSet<>();
+		int total = 0;
+		for (String node : nodes) {
+			Set<Integer> shards = ShardAssignment.shardsOf(node, nodes, SHARDS);
+			assertTrue(shards.size() <= 6, node + " owns " + shards.size() + " shards");
+			assigned.addAll(shards);
+			total += shards.size();
+		}
+
+		assertEquals(SHARDS, assigned.size());
+		assertEquals(SHARDS, total);
+	}
+
+	@Test
+	void nodesAgreeWhateverOrderTheyListEachOtherIn() {
+		assertEquals(ShardAssignment.shardsOf("worker-b", List.of("worker-a", "worker-b", "worker-c"), SHARDS),
+				ShardAssignment.shardsOf("worker-b", List.of("worker-c", "worker-a", "worker-b"), SHARDS));
+	}
+
+	@Test
+	void aJoiningNodeTakesItsShareWithoutReshufflingTheRest() {
+		List<String> before = List.of("worker-a", "worker-b", "worker-c");
+		List<String> after = List.of("worker-a", "worker-b", "worker-c", "worker-d");
+
+		int moved = 0;
+		for (String node : before) {
+			Set<Integer> lost = new HashSet<>(ShardAssignment.shardsOf(node, before, SHARDS));
+			lost.removeAll(ShardAssignment.shardsOf(node, after, SHARDS));
+			moved += lost.size();
+		}
+
+		assertEquals(SHARDS / after.size(), ShardAssignment.shardsOf("worker-d", after, SHARDS).size());
+		assertTrue(moved < SHARDS / 2, moved + " shards moved");
+	}
+
+	@Test
+	void aNodeMissingFromTheRegistryOwnsNothing() {
+		assertTrue(ShardAssignment.shardsOf("worker-z", List.of("worker-a"), SHARDS).isEmpty());
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.models.CardNetwork;
+import com.example.gateway.services.BinRangeTable;
+import com.example.gateway.services.BinRangeTable.BinRange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookup cost of the BIN range table as it grows, with random, partly overlapping ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinRangeLookupBenchmark {
+
+    private static final int BIN_SPACE = 100_000_000;
+    // Power of two so the probe index can wrap with a mask
+    private static final int PROBES = 1 << 16;
+
+    @Param({"100", "10000", "100000"})
+    public int ranges;
+
+    private BinRangeTable table;
+    private final int[] bins = new int[PROBES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        CardNetwork[] networks = {CardNetwork.VISA, CardNetwork.MASTERCARD, CardNetwork.RUPAY,
+                CardNetwork.DISCOVER, CardNetwork.DINERS, CardNetwork.MAESTRO};
+
+        List<BinRange> source = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges; i++) {
+            int start = random.nextInt(BIN_SPACE);
+            // Mostly 6-digit wide ranges with the odd broad one, like real BIN files
+            int width = i % 100 == 0 ? random.nextInt(1_000_000) : random.nextInt(100);
+            int end = Math.min(BIN_SPACE - 1, start + width);
+            source.add(new BinRange(start, end, networks[random.nextInt(networks.length)]));
+        }
+        table = BinRangeTable.of(source);
+
+        for (int i = 0; i < PROBES; i++) {
+            bins[i] = random.nextInt(BIN_SPACE);
+        }
+    }
+
+    @Benchmark
+    public CardNetwork lookup() {
+        return table.lookup(bins[next++ & (PROBES - 1)]);
+    }
+}
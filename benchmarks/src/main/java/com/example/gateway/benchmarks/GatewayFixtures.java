@@ -0,0 +1,68 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.config.JacksonConfig;
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.models.CardNetwork;
+import com.example.gateway.models.Merchant;
+import com.example.gateway.models.Order;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentMethod;
+import com.example.gateway.models.PaymentStatus;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entities shaped like the ones the API and workers handle, built without a database.
+ */
+final class GatewayFixtures {
+
+    static final String WEBHOOK_SECRET = "whsec_test_abc123";
+
+    private GatewayFixtures() {
+    }
+
+    // What JacksonConfig provides to the application, without a Spring context
+    static JsonCodecs jsonCodecs() {
+        return new JsonCodecs(JacksonConfig.newObjectMapper(), List.of());
+    }
+
+    static Merchant merchant() {
+        Merchant merchant = new Merchant();
+        merchant.setId(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"));
+        merchant.setName("Test Merchant");
+        merchant.setEmail("test@example.com");
+        merchant.setApiKey("key_test_abc123");
+        merchant.setApiSecret("secret_test_xyz789");
+        merchant.setWebhookUrl("http://localhost:4000/webhook");
+        merchant.setWebhookSecret(WEBHOOK_SECRET);
+        return merchant;
+    }
+
+    static Order order(Merchant merchant) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return new Order("order_NXhj67fGH2jk9mPq", merchant, 50000, "INR", "receipt_123", null,
+                "created", now, now);
+    }
+
+    static Payment cardPayment() {
+        Merchant merchant = merchant();
+        Order order = order(merchant);
+        OffsetDateTime now = OffsetDateTime.now();
+
+        Payment payment = new Payment();
+        payment.setId("pay_H8sK3jD9s2L1pQr");
+        payment.setOrder(order);
+        payment.setMerchant(merchant);
+        payment.setAmount(order.getAmount());
+        payment.setCurrency(order.getCurrency());
+        payment.setMethod(PaymentMethod.CARD);
+        payment.setStatus(PaymentStatus.SUCCESS);
+        payment.setCardNetwork(CardNetwork.VISA);
+        payment.setCardLast4("1111");
+        payment.setCaptured(false);
+        payment.setCreatedAt(now);
+        payment.setUpdatedAt(now);
+        return payment;
+    }
+}
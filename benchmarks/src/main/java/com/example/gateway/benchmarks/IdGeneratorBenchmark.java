@@ -0,0 +1,44 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.services.IDGeneratorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    // generateRandomString does not touch the repositories
+    private final IDGeneratorService idGeneratorService = new IDGeneratorService(null, null);
+
+    @Param({"12", "16", "32"})
+    public int length;
+
+    @Benchmark
+    public String generateRandomString() {
+        return idGeneratorService.generateRandomString(length);
+    }
+
+    /**
+     * The generator shares one SecureRandom, so contention shows up under concurrent requests.
+     */
+    @Benchmark
+    @Threads(4)
+    public String generateRandomStringContended() {
+        return idGeneratorService.generateRandomString(length);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.jobs.DeliverWebhookJob;
+import com.example.gateway.jobs.JobCodec;
+import com.example.gateway.jobs.ProcessPaymentJob;
+import com.example.gateway.jobs.ProcessRefundJob;
+import com.example.gateway.services.WebhookPayloadBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Queued job encoding: JSON, as jobs used to be stored, against JobCodec's binary format.
+ *
+ * encodeQueue/decodeQueue push one million jobs (the mix below) through each format. The
+ * QueueBytes counters report the bytes those jobs occupy as Redis values, which is what the
+ * queue costs in memory apart from the per-key overhead both formats share.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class JobCodecBenchmark {
+
+    private static final int QUEUED_JOBS = 1_000_000;
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private final JsonCodecs jsonCodecs = GatewayFixtures.jsonCodecs();
+    private final JobCodec jobCodec = new JobCodec(jsonCodecs);
+    private Object[] jobs;
+    private byte[][] encoded;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        JsonNode payload = new WebhookPayloadBuilder(jsonCodecs).buildPaymentPayload("payment.success",
+                GatewayFixtures.cardPayment());
+        // Every payment produces a webhook; roughly one in ten is refunded
+        jobs = new Object[QUEUED_JOBS];
+        for (int i = 0; i < QUEUED_JOBS; i++) {
+            String jobId = String.format("job_%012d", i);
+            jobs[i] = switch (i % 20) {
+                case 0, 2, 4, 6, 8, 10, 12, 14, 16 -> new ProcessPaymentJob(jobId, String.format("pay_%016d", i));
+                case 18 -> new ProcessRefundJob(jobId, String.format("rfnd_%016d", i));
+                default -> new DeliverWebhookJob(jobId, GatewayFixtures.merchant().getId(), "payment.success", payload);
+            };
+        }
+        encoded = new byte[QUEUED_JOBS][];
+        for (int i = 0; i < QUEUED_JOBS; i++) {
+            encoded[i] = encode(jobs[i]);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class QueueBytes {
+        public long totalBytes;
+        public long bytesPerJob;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            totalBytes = 0;
+            bytesPerJob = 0;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUEUED_JOBS)
+    public void encodeQueue(QueueBytes bytes) throws JsonProcessingException {
+        long total = 0;
+        for (Object job : jobs) {
+            total += encode(job).length;
+        }
+        bytes.totalBytes = total;
+        bytes.bytesPerJob = total / QUEUED_JOBS;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUEUED_JOBS)
+    public int decodeQueue() throws Exception {
+        int checksum = 0;
+        for (int i = 0; i < QUEUED_JOBS; i++) {
+            Object job = decode(encoded[i], jobs[i].getClass());
+            checksum += job.hashCode();
+        }
+        return checksum;
+    }
+
+    private byte[] encode(Object job) throws JsonProcessingException {
+        return "json".equals(format) ? jsonCodecs.writeBytes(job) : jobCodec.encode(job);
+    }
+
+    private Object decode(byte[] data, Class<?> type) throws Exception {
+        return "json".equals(format) ? jsonCodecs.readerFor(type).readValue(data) : jobCodec.decode(data, type);
+    }
+}
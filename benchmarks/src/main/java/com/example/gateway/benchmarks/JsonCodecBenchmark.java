@@ -0,0 +1,81 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.config.JacksonConfig;
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.jobs.ProcessPaymentJob;
+import com.example.gateway.services.WebhookPayloadBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Before/after for JsonCodecs: job and webhook JSON through ObjectMapper.readValue/writeValueAsString
+ * on a separately created mapper (as JobProcessor and the webhook classes did) against the shared,
+ * type-bound readers and writers built by JacksonConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private final ObjectMapper perClassMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final JsonCodecs codecs = new JsonCodecs(
+            JacksonConfig.newObjectMapper(), List.of(ProcessPaymentJob.class));
+    private String jobJson;
+    private ProcessPaymentJob job;
+    private JsonNode webhookPayload;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        job = new ProcessPaymentJob("job_a8Kd02LmQp7x", "pay_H8sK3jD9s2L1pQr");
+        jobJson = codecs.write(job);
+        webhookPayload = new WebhookPayloadBuilder(codecs).buildPaymentPayload("payment.success",
+                GatewayFixtures.cardPayment());
+    }
+
+    @Benchmark
+    public ProcessPaymentJob readJobPerClassMapper() throws JsonProcessingException {
+        return perClassMapper.readValue(jobJson, ProcessPaymentJob.class);
+    }
+
+    @Benchmark
+    public ProcessPaymentJob readJobCodecs() throws JsonProcessingException {
+        return codecs.read(jobJson, ProcessPaymentJob.class);
+    }
+
+    @Benchmark
+    public String writeJobPerClassMapper() throws JsonProcessingException {
+        return perClassMapper.writeValueAsString(job);
+    }
+
+    @Benchmark
+    public String writeJobCodecs() throws JsonProcessingException {
+        return codecs.write(job);
+    }
+
+    @Benchmark
+    public String writeWebhookPayloadPerClassMapper() throws JsonProcessingException {
+        return perClassMapper.writeValueAsString(webhookPayload);
+    }
+
+    @Benchmark
+    public String writeWebhookPayloadCodecs() throws JsonProcessingException {
+        return codecs.write(webhookPayload);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.models.JsonNodeConverter;
+import com.example.gateway.services.WebhookPayloadBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JsonNodeConverter backs the jsonb columns of webhook_logs and idempotency_keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonNodeConverterBenchmark {
+
+    private final JsonNodeConverter converter = new JsonNodeConverter();
+    private JsonNode payload;
+    private String column;
+
+    @Setup
+    public void setup() {
+        payload = new WebhookPayloadBuilder(GatewayFixtures.jsonCodecs()).buildPaymentPayload("payment.success", GatewayFixtures.cardPayment());
+        column = converter.convertToDatabaseColumn(payload);
+    }
+
+    @Benchmark
+    public String toDatabaseColumn() {
+        return converter.convertToDatabaseColumn(payload);
+    }
+
+    @Benchmark
+    public JsonNode toEntityAttribute() {
+        return converter.convertToEntityAttribute(column);
+    }
+
+    @Benchmark
+    public JsonNode roundTrip() {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(payload));
+    }
+}
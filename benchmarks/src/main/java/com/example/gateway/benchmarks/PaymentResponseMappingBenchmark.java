@@ -0,0 +1,55 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.config.JacksonConfig;
+import com.example.gateway.controllers.PaymentController;
+import com.example.gateway.dto.PaymentResponse;
+import com.example.gateway.models.Payment;
+import com.example.gateway.services.ResponseRenderer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentResponseMappingBenchmark {
+
+    // mapPaymentToResponse only reads the entity, the injected collaborators are not needed
+    private final PaymentController controller = new PaymentController(null);
+    private final ObjectMapper objectMapper = JacksonConfig.newObjectMapper();
+    private final ResponseRenderer renderer = new ResponseRenderer(objectMapper, 10_000);
+    private final Payment payment = GatewayFixtures.cardPayment();
+
+    @Benchmark
+    public PaymentResponse mapPaymentToResponse() {
+        return controller.mapPaymentToResponse(payment);
+    }
+
+    /**
+     * Mapping plus JSON serialization, what GET /api/v1/payments/{id} costs for an unfinished payment.
+     */
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(controller.mapPaymentToResponse(payment));
+    }
+
+    /**
+     * GET /api/v1/payments/{id} for a finished payment: bytes rendered once, then served from cache.
+     */
+    @Benchmark
+    public byte[] renderTerminalPayment() {
+        return renderer.renderPayment(payment);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.models.IdempotencyKey;
+import com.example.gateway.models.Merchant;
+import com.example.gateway.models.Order;
+import com.example.gateway.models.Payment;
+import com.example.gateway.models.PaymentMethod;
+import com.example.gateway.models.PaymentStatus;
+import com.example.gateway.models.Refund;
+import com.example.gateway.models.WebhookLog;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Bulk order, payment and webhook-log inserts in one transaction, with the settings from
+ * application-prod.properties ("prod") against Hibernate and PgJDBC defaults ("default").
+ * Scores are rows per second.
+ *
+ * Starts a postgres:15-alpine container unless -Dbench.jdbc.url (with bench.jdbc.username and
+ * bench.jdbc.password) points at an existing database; the tables are recreated either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBatchBenchmark {
+
+    private static final int ROWS = 100;
+
+    @Param({"default", "prod"})
+    public String settings;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private Merchant merchant;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("bench.jdbc.url");
+        String username = System.getProperty("bench.jdbc.username", "gateway_user");
+        String password = System.getProperty("bench.jdbc.password", "gateway_pass");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+
+        boolean prod = "prod".equals(settings);
+        HikariConfig hikari = new HikariConfig();
+        hikari.setJdbcUrl(url);
+        hikari.setUsername(username);
+        hikari.setPassword(password);
+        hikari.setMaximumPoolSize(2);
+        hikari.addDataSourceProperty("stringtype", "unspecified");
+        if (prod) {
+            hikari.addDataSourceProperty("reWriteBatchedInserts", "true");
+            hikari.addDataSourceProperty("prepareThreshold", "3");
+            hikari.addDataSourceProperty("preparedStatementCacheQueries", "512");
+            hikari.addDataSourceProperty("preparedStatementCacheSizeMiB", "10");
+        }
+        dataSource = new HikariDataSource(hikari);
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Merchant.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(Payment.class)
+                .addAnnotatedClass(Refund.class)
+                .addAnnotatedClass(WebhookLog.class)
+                .addAnnotatedClass(IdempotencyKey.class);
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        if (prod) {
+            configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+            configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+            configuration.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        }
+        sessionFactory = configuration.buildSessionFactory();
+
+        merchant = GatewayFixtures.merchant();
+        merchant.setId(null);
+        sessionFactory.inTransaction(session -> session.persist(merchant));
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        // Keep table and index sizes comparable from one iteration to the next
+        sessionFactory.inTransaction(session -> session.createNativeMutationQuery(
+                "TRUNCATE refunds, webhook_logs, payments, orders").executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    /**
+     * One order, payment and webhook log per row, written the way the API and workers interleave them.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS * 3)
+    public void insertOrdersPaymentsAndWebhookLogs() {
+        sessionFactory.inTransaction(session -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            for (int i = 0; i < ROWS; i++) {
+                long n = sequence++;
+                Order order = new Order("order_b" + n, merchant, 50000, "INR", "receipt_" + n, null,
+                        "created", now, now);
+                session.persist(order);
+
+                Payment payment = new Payment();
+                payment.setId("pay_b" + n);
+                payment.setOrder(order);
+                payment.setMerchant(merchant);
+                payment.setAmount(order.getAmount());
+                payment.setMethod(PaymentMethod.UPI);
+                payment.setVpa("user@paytm");
+                payment.setStatus(PaymentStatus.PENDING);
+                session.persist(payment);
+
+                WebhookLog log = new WebhookLog();
+                log.setId("wh_b" + n);
+                log.setMerchant(merchant);
+                log.setEvent("payment.created");
+                log.setPayload(JsonNodeFactory.instance.objectNode().put("payment_id", payment.getId()));
+                session.persist(log);
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.models.CardNetwork;
+import com.example.gateway.services.BinRangeRegistry;
+import com.example.gateway.services.CardInspection;
+import com.example.gateway.services.ValidationService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationServiceBenchmark {
+
+    /**
+     * Card numbers as the checkout sends them: plain, space and dash separated.
+     */
+    @State(Scope.Benchmark)
+    public static class Cards {
+        @Param({"4111111111111111", "4111 1111 1111 1111", "5500-0000-0000-0004", "378282246310005"})
+        public String cardNumber;
+    }
+
+    private final ValidationService validationService =
+            new ValidationService(new BinRangeRegistry(new ClassPathResource("bin-ranges.csv")));
+    private final String vpa = "john.doe@okhdfcbank";
+
+    @Benchmark
+    public boolean validateCardNumber(Cards cards) {
+        return validationService.validateCardNumber(cards.cardNumber);
+    }
+
+    @Benchmark
+    public CardNetwork getCardNetwork(Cards cards) {
+        return validationService.getCardNetwork(cards.cardNumber);
+    }
+
+    @Benchmark
+    public String getCardLast4(Cards cards) {
+        return validationService.getCardLast4(cards.cardNumber);
+    }
+
+    /**
+     * What PaymentService does per card payment: one inspection for validity, network and last 4.
+     */
+    @Benchmark
+    public void inspectCard(Cards cards, Blackhole blackhole) {
+        CardInspection inspection = validationService.inspectCard(cards.cardNumber);
+        blackhole.consume(inspection.isValid());
+        blackhole.consume(inspection.getNetwork());
+        blackhole.consume(inspection.getLast4());
+    }
+
+    @Benchmark
+    public boolean validateVPA() {
+        return validationService.validateVPA(vpa);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.models.Payment;
+import com.example.gateway.services.WebhookPayloadBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookPayloadBuilderBenchmark {
+
+    private final WebhookPayloadBuilder payloadBuilder = new WebhookPayloadBuilder(GatewayFixtures.jsonCodecs());
+    private final Payment payment = GatewayFixtures.cardPayment();
+
+    @Benchmark
+    public JsonNode buildPaymentPayload() {
+        return payloadBuilder.buildPaymentPayload("payment.success", payment);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.gateway.benchmarks;
+
+import com.example.gateway.services.WebhookPayloadBuilder;
+import com.example.gateway.services.WebhookSignatureService;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookSignatureBenchmark {
+
+    private final WebhookSignatureService signatureService = new WebhookSignatureService(GatewayFixtures.jsonCodecs());
+    private JsonNode payload;
+    private String payloadString;
+
+    @Setup
+    public void setup() {
+        payload = new WebhookPayloadBuilder(GatewayFixtures.jsonCodecs()).buildPaymentPayload("payment.success", GatewayFixtures.cardPayment());
+        payloadString = payload.toString();
+    }
+
+    /**
+     * Signing a JsonNode, which serializes it first (WebhookWorker signs the pre-serialized string).
+     */
+    @Benchmark
+    public String generateSignatureFromNode() {
+        return signatureService.generateSignature(payload, GatewayFixtures.WEBHOOK_SECRET);
+    }
+
+    @Benchmark
+    public String generateSignatureFromString() {
+        return signatureService.generateSignature(payloadString, GatewayFixtures.WEBHOOK_SECRET);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.gateway.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: order+payment pairs are started on a fixed schedule regardless of how fast
+ * the gateway answers, and API latency is measured from the scheduled start time so a stalled
+ * server shows up in the percentiles instead of silently lowering the offered rate.
+ */
+final class LoadGenerator implements WebhookReceiver.Listener {
+
+    private record InFlight(long scheduledNanos, boolean measured) {
+    }
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final StageRecorder recorder;
+    private final HttpClient httpClient;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    final AtomicLong started = new AtomicLong();
+    final AtomicLong orderErrors = new AtomicLong();
+    final AtomicLong paymentErrors = new AtomicLong();
+    final AtomicLong completed = new AtomicLong();
+    final AtomicLong failedPayments = new AtomicLong();
+    final AtomicLong unmatchedWebhooks = new AtomicLong();
+
+    private volatile long measuredStartNanos;
+    private volatile long measuredEndNanos;
+
+    LoadGenerator(LoadTestOptions options, String baseUrl, ObjectMapper objectMapper, StageRecorder recorder) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Point the merchant's webhooks at the stub receiver and return the freshly generated secret.
+     */
+    String configureMerchant(String webhookUrl) throws IOException, InterruptedException {
+        ObjectNode config = objectMapper.createObjectNode().put("webhook_url", webhookUrl);
+        HttpResponse<String> configResponse = post("/dashboard/api/webhooks/config", config.toString());
+        if (configResponse.statusCode() != 200) {
+            throw new IllegalStateException("Could not set webhook URL: " + configResponse.body());
+        }
+        HttpResponse<String> secretResponse = post("/dashboard/api/webhooks/secret/regenerate", "{}");
+        if (secretResponse.statusCode() != 200) {
+            throw new IllegalStateException("Could not regenerate webhook secret: " + secretResponse.body());
+        }
+        return objectMapper.readTree(secretResponse.body()).get("webhook_secret").asText();
+    }
+
+    /**
+     * Runs warmup plus the measured phase, then waits for outstanding webhooks.
+     */
+    void run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rps;
+        long warmupIterations = (long) options.warmupSeconds * options.rps;
+        long totalIterations = warmupIterations + (long) options.durationSeconds * options.rps;
+
+        long start = System.nanoTime();
+        measuredStartNanos = start + warmupIterations * intervalNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < totalIterations; i++) {
+                long scheduled = start + i * intervalNanos;
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = i >= warmupIterations;
+                executor.execute(() -> iteration(scheduled, measured));
+            }
+            measuredEndNanos = System.nanoTime();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainTimeoutSeconds);
+        while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    double measuredSeconds() {
+        return (measuredEndNanos - measuredStartNanos) / 1e9;
+    }
+
+    /**
+     * Measured payments whose webhook never arrived within the drain timeout.
+     */
+    long lost() {
+        return inFlight.values().stream().filter(InFlight::measured).count();
+    }
+
+    private void iteration(long scheduledNanos, boolean measured) {
+        if (measured) {
+            started.incrementAndGet();
+        }
+        try {
+            ObjectNode order = objectMapper.createObjectNode()
+                    .put("amount", 50000)
+                    .put("currency", "INR")
+                    .put("receipt", "lt_" + scheduledNanos);
+            HttpResponse<String> orderResponse = post("/api/v1/orders", order.toString());
+            long orderDone = System.nanoTime();
+            if (orderResponse.statusCode() != 201) {
+                countError(orderErrors, measured);
+                return;
+            }
+            String orderId = objectMapper.readTree(orderResponse.body()).get("id").asText();
+
+            ObjectNode payment = objectMapper.createObjectNode()
+                    .put("order_id", orderId)
+                    .put("method", options.method);
+            if ("upi".equals(options.method)) {
+                payment.put("vpa", "loadtest@okhdfcbank");
+            }
+            HttpResponse<String> paymentResponse = post("/api/v1/payments", payment.toString());
+            long paymentDone = System.nanoTime();
+            if (paymentResponse.statusCode() != 201) {
+                countError(paymentErrors, measured);
+                return;
+            }
+            String paymentId = objectMapper.readTree(paymentResponse.body()).get("id").asText();
+            inFlight.put(paymentId, new InFlight(scheduledNanos, measured));
+
+            if (measured) {
+                recorder.recordNanos(Stage.ORDER_API, orderDone - scheduledNanos);
+                recorder.recordNanos(Stage.PAYMENT_API, paymentDone - orderDone);
+            }
+        } catch (IOException e) {
+            countError(orderErrors, measured);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void onWebhook(JsonNode payload, Instant receivedAt, long receivedNanos) {
+        JsonNode payment = payload.path("data").path("payment");
+        if (payment.isMissingNode()) {
+            return;
+        }
+        InFlight flight = inFlight.remove(payment.path("id").asText());
+        if (flight == null) {
+            // Retry of an already counted delivery, or a payment from before this run
+            unmatchedWebhooks.incrementAndGet();
+            return;
+        }
+        if (!flight.measured()) {
+            return;
+        }
+        completed.incrementAndGet();
+        if (!"payment.success".equals(payload.path("event").asText())) {
+            failedPayments.incrementAndGet();
+        }
+
+        recorder.recordNanos(Stage.END_TO_END, receivedNanos - flight.scheduledNanos());
+        if (payment.hasNonNull("created_at") && payment.hasNonNull("updated_at")) {
+            Instant createdAt = OffsetDateTime.parse(payment.get("created_at").asText()).toInstant();
+            Instant updatedAt = OffsetDateTime.parse(payment.get("updated_at").asText()).toInstant();
+            long completionMicros = Duration.between(createdAt, updatedAt).toNanos() / 1000;
+            recorder.recordMicros(Stage.WORKER_COMPLETION, completionMicros);
+            recorder.recordMicros(Stage.QUEUE_WAIT, completionMicros - options.processingDelayMs * 1000);
+            recorder.recordMicros(Stage.WEBHOOK_DELIVERY, Duration.between(updatedAt, receivedAt).toNanos() / 1000);
+        }
+    }
+
+    private void countError(AtomicLong counter, boolean measured) {
+        if (measured) {
+            counter.incrementAndGet();
+        }
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("X-Api-Key", options.apiKey)
+                .header("X-Api-Secret", options.apiSecret)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
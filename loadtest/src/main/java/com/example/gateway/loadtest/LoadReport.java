@@ -0,0 +1,136 @@
+package com.example.gateway.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Renders the run as a console table, a summary.json that later runs can use as --baseline,
+ * and one .hgrm percentile distribution per stage (loadable in the HdrHistogram plotter).
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestOptions options;
+    private final LoadGenerator generator;
+    private final WebhookReceiver receiver;
+    private final StageRecorder recorder;
+    private final ObjectMapper objectMapper;
+
+    LoadReport(LoadTestOptions options, LoadGenerator generator, WebhookReceiver receiver,
+            StageRecorder recorder, ObjectMapper objectMapper) {
+        this.options = options;
+        this.generator = generator;
+        this.receiver = receiver;
+        this.recorder = recorder;
+        this.objectMapper = objectMapper;
+    }
+
+    void write() throws IOException {
+        ObjectNode summary = summary();
+        JsonNode baseline = options.baseline != null ? objectMapper.readTree(options.baseline.toFile()) : null;
+        print(summary, baseline, System.out);
+
+        Files.createDirectories(options.outputDir);
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(options.outputDir.resolve("summary.json").toFile(), summary);
+        for (Stage stage : Stage.values()) {
+            Path file = options.outputDir.resolve(stage.key() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Values are recorded in microseconds, report them in milliseconds
+                recorder.histogram(stage).outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Report written to " + options.outputDir.toAbsolutePath());
+    }
+
+    private ObjectNode summary() {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("timestamp", Instant.now().toString());
+
+        ObjectNode config = root.putObject("config");
+        config.put("target_rps", options.rps);
+        config.put("duration_seconds", options.durationSeconds);
+        config.put("warmup_seconds", options.warmupSeconds);
+        config.put("processing_delay_ms", options.processingDelayMs);
+        config.put("method", options.method);
+        config.put("stack", options.inProcess() ? "in-process" : options.baseUrl);
+
+        ObjectNode counts = root.putObject("counts");
+        counts.put("started", generator.started.get());
+        counts.put("order_errors", generator.orderErrors.get());
+        counts.put("payment_errors", generator.paymentErrors.get());
+        counts.put("webhooks_completed", generator.completed.get());
+        counts.put("payments_failed", generator.failedPayments.get());
+        counts.put("webhooks_lost", generator.lost());
+        counts.put("webhooks_unmatched", generator.unmatchedWebhooks.get());
+        counts.put("bad_signatures", receiver.badSignatures());
+        root.put("achieved_rps", generator.started.get() / generator.measuredSeconds());
+
+        ObjectNode stages = root.putObject("stages_ms");
+        for (Stage stage : Stage.values()) {
+            Histogram histogram = recorder.histogram(stage);
+            ObjectNode node = stages.putObject(stage.key());
+            node.put("count", histogram.getTotalCount());
+            node.put("mean", histogram.getMean() / 1000.0);
+            for (double percentile : PERCENTILES) {
+                node.put(percentileKey(percentile), histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            node.put("max", histogram.getMaxValue() / 1000.0);
+        }
+        return root;
+    }
+
+    private void print(ObjectNode summary, JsonNode baseline, PrintStream out) {
+        JsonNode counts = summary.get("counts");
+        out.println();
+        out.printf("Target %d rps for %ds (warmup %ds), achieved %.1f rps%n",
+                options.rps, options.durationSeconds, options.warmupSeconds, summary.get("achieved_rps").asDouble());
+        out.printf("started=%d order_errors=%d payment_errors=%d completed=%d failed=%d lost=%d bad_signatures=%d%n",
+                counts.get("started").asLong(), counts.get("order_errors").asLong(),
+                counts.get("payment_errors").asLong(), counts.get("webhooks_completed").asLong(),
+                counts.get("payments_failed").asLong(), counts.get("webhooks_lost").asLong(),
+                counts.get("bad_signatures").asLong());
+        out.println();
+        out.printf("%-18s %8s %10s %10s %10s %10s %10s%n", "stage (ms)", "count", "p50", "p90", "p99", "p99.9", "max");
+
+        for (Stage stage : Stage.values()) {
+            JsonNode node = summary.get("stages_ms").get(stage.key());
+            StringBuilder line = new StringBuilder(String.format("%-18s %8d", stage.key(), node.get("count").asLong()));
+            for (String key : new String[] {"p50", "p90", "p99", "p99_9", "max"}) {
+                line.append(String.format(" %10.1f", node.get(key).asDouble()));
+            }
+            out.println(line);
+
+            JsonNode previous = baseline != null ? baseline.path("stages_ms").path(stage.key()) : null;
+            if (previous != null && !previous.isMissingNode()) {
+                StringBuilder delta = new StringBuilder(String.format("%-18s %8s", "  vs baseline", ""));
+                for (String key : new String[] {"p50", "p90", "p99", "p99_9", "max"}) {
+                    delta.append(String.format(" %10s", change(previous.path(key).asDouble(), node.get(key).asDouble())));
+                }
+                out.println(delta);
+            }
+        }
+        out.println();
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return "n/a";
+        }
+        return String.format("%+.1f%%", (after - before) * 100.0 / before);
+    }
+
+    private static String percentileKey(double percentile) {
+        return "p" + (percentile == Math.rint(percentile)
+                ? String.valueOf((long) percentile)
+                : String.valueOf(percentile).replace('.', '_'));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.gateway.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Command line options of the load test. All durations are in seconds unless named otherwise.
+ */
+final class LoadTestOptions {
+
+    int rps = 20;
+    int durationSeconds = 60;
+    int warmupSeconds = 10;
+    int drainTimeoutSeconds = 60;
+    long processingDelayMs = 0;
+    String method = "upi";
+    Path outputDir = Path.of("target", "loadtest");
+    Path baseline;
+
+    // When set, the harness targets an already running stack instead of starting one
+    String baseUrl;
+    String webhookHost = "localhost";
+    String apiKey = "key_test_abc123";
+    String apiSecret = "secret_test_xyz789";
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--help".equals(arg) || "-h".equals(arg)) {
+                printUsage();
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--rps" -> options.rps = Integer.parseInt(value);
+                case "--duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "--drain-timeout" -> options.drainTimeoutSeconds = Integer.parseInt(value);
+                case "--processing-delay-ms" -> options.processingDelayMs = Long.parseLong(value);
+                case "--method" -> options.method = value;
+                case "--out" -> options.outputDir = Path.of(value);
+                case "--baseline" -> options.baseline = Path.of(value);
+                case "--base-url" -> options.baseUrl = value;
+                case "--webhook-host" -> options.webhookHost = value;
+                case "--api-key" -> options.apiKey = value;
+                case "--api-secret" -> options.apiSecret = value;
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (options.rps <= 0 || options.durationSeconds <= 0 || options.warmupSeconds < 0) {
+            throw new IllegalArgumentException("rps and duration must be positive, warmup must not be negative");
+        }
+        if (!"upi".equals(options.method) && !"card".equals(options.method)) {
+            throw new IllegalArgumentException("method must be upi or card");
+        }
+        return options;
+    }
+
+    static void printUsage() {
+        System.out.println("""
+                Usage: LoadTestRunner [options]
+                  --rps <n>                   order+payment pairs started per second (default 20)
+                  --duration <s>              measured phase length (default 60)
+                  --warmup <s>                unmeasured warmup before the measured phase (default 10)
+                  --drain-timeout <s>         how long to wait for outstanding webhooks (default 60)
+                  --processing-delay-ms <ms>  simulated processor delay (default 0); set on the in-process
+                                              stack and subtracted from worker completion to get queue wait
+                  --method <upi|card>         payment method to create (default upi)
+                  --out <dir>                 report directory (default target/loadtest)
+                  --baseline <summary.json>   previous report to compare against
+                  --base-url <url>            target a running gateway instead of starting one
+                  --webhook-host <host>       host the gateway uses to reach this process (default localhost)
+                  --api-key / --api-secret    merchant credentials (default: seeded test merchant)
+                """);
+    }
+
+    boolean inProcess() {
+        return baseUrl == null;
+    }
+}
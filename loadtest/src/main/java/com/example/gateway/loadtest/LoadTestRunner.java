@@ -0,0 +1,40 @@
+package com.example.gateway.loadtest;
+
+import com.example.gateway.config.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives order → payment → webhook traffic at a fixed rate and reports per-stage latency.
+ * <p>
+ * By default it starts Postgres and Redis with Testcontainers and boots the gateway in this JVM;
+ * with --base-url it targets a running stack instead (the gateway must be able to reach
+ * --webhook-host for the stub receiver).
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        StageRecorder recorder = new StageRecorder();
+
+        try (LocalStack stack = options.inProcess() ? new LocalStack() : null;
+             WebhookReceiver receiver = new WebhookReceiver(objectMapper)) {
+            String baseUrl = stack != null ? stack.start(options) : options.baseUrl;
+
+            LoadGenerator generator = new LoadGenerator(options, baseUrl, objectMapper, recorder);
+            receiver.setSecret(generator.configureMerchant(receiver.url(options.webhookHost)));
+            receiver.setListener(generator);
+
+            System.out.printf("Running %d rps against %s (warmup %ds, measured %ds)%n",
+                    options.rps, baseUrl, options.warmupSeconds, options.durationSeconds);
+            generator.run();
+
+            new LoadReport(options, generator, receiver, recorder, objectMapper).write();
+        }
+        // Spring and Testcontainers leave non-daemon threads behind
+        System.exit(0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gateway.loadtest;
+
+import com.example.gateway.PaymentGatewayApplication;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Postgres and Redis in Testcontainers plus the gateway (API and workers) booted in this JVM.
+ */
+final class LocalStack implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("payment_gateway")
+            .withUsername("gateway_user")
+            .withPassword("gateway_pass");
+
+    private final GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private ConfigurableApplicationContext context;
+
+    String start(LoadTestOptions options) {
+        postgres.start();
+        redis.start();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.data.redis.host", redis.getHost());
+        properties.put("spring.data.redis.port", redis.getMappedPort(6379));
+        properties.put("server.port", 0);
+        properties.put("test.mode", true);
+        properties.put("test.payment.success", true);
+        properties.put("test.processing.delay", options.processingDelayMs);
+        properties.put("webhook.retry.test.mode", true);
+        properties.put("spring.main.banner-mode", "off");
+        // Per-job INFO logging would dominate the measurement
+        properties.put("logging.level.com.example.gateway", "WARN");
+
+        context = new SpringApplicationBuilder(PaymentGatewayApplication.class)
+                .properties(properties)
+                .run();
+        String port = context.getEnvironment().getProperty("local.server.port");
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+        redis.stop();
+        postgres.stop();
+    }
+}
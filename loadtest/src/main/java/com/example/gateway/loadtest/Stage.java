@@ -0,0 +1,35 @@
+package com.example.gateway.loadtest;
+
+/**
+ * Pipeline stages recorded by the load test.
+ */
+enum Stage {
+
+    /** POST /api/v1/orders, measured from the scheduled start so stalls are not hidden. */
+    ORDER_API("order_api"),
+
+    /** POST /api/v1/payments. */
+    PAYMENT_API("payment_api"),
+
+    /** Payment created_at to the worker's final update (updated_at): queue wait plus processing. */
+    WORKER_COMPLETION("worker_completion"),
+
+    /** Worker completion minus the configured processing delay. */
+    QUEUE_WAIT("queue_wait"),
+
+    /** Payment updated_at to the webhook arriving at the stub receiver. */
+    WEBHOOK_DELIVERY("webhook_delivery"),
+
+    /** Scheduled order start to webhook receipt. */
+    END_TO_END("end_to_end");
+
+    private final String key;
+
+    Stage(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.gateway.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * One HdrHistogram per stage, values in microseconds.
+ */
+final class StageRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Map<Stage, Histogram> histograms = new EnumMap<>(Stage.class);
+
+    StageRecorder() {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+    }
+
+    void recordNanos(Stage stage, long nanos) {
+        recordMicros(stage, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    void recordMicros(Stage stage, long micros) {
+        histograms.get(stage).recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    Histogram histogram(Stage stage) {
+        return histograms.get(stage);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.gateway.loadtest;
+
+import com.example.gateway.config.JsonCodecs;
+import com.example.gateway.services.WebhookSignatureService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stub merchant endpoint. Verifies the signature, acknowledges with 200 and reports every
+ * delivery to the listener with the time it arrived.
+ */
+final class WebhookReceiver implements AutoCloseable {
+
+    interface Listener {
+        void onWebhook(JsonNode payload, Instant receivedAt, long receivedNanos);
+    }
+
+    private static final String PATH = "/webhook";
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper;
+    private final WebhookSignatureService signatureService;
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong badSignatures = new AtomicLong();
+    private volatile String secret;
+    private volatile Listener listener;
+
+    WebhookReceiver(ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.signatureService = new WebhookSignatureService(new JsonCodecs(objectMapper, List.of()));
+        this.server = HttpServer.create(new InetSocketAddress(0), 1024);
+        this.server.createContext(PATH, this::handle);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.start();
+    }
+
+    String url(String host) {
+        return "http://" + host + ":" + server.getAddress().getPort() + PATH;
+    }
+
+    void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    long received() {
+        return received.get();
+    }
+
+    long badSignatures() {
+        return badSignatures.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long receivedNanos = System.nanoTime();
+        Instant receivedAt = Instant.now();
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            String payload = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            received.incrementAndGet();
+
+            String signature = exchange.getRequestHeaders().getFirst("X-Webhook-Signature");
+            String expectedSecret = secret;
+            if (expectedSecret != null
+                    && !signatureService.generateSignature(payload, expectedSecret).equals(signature)) {
+                badSignatures.incrementAndGet();
+            }
+
+            exchange.sendResponseHeaders(200, -1);
+
+            Listener current = listener;
+            if (current != null) {
+                current.onWebhook(objectMapper.readTree(payload), receivedAt, receivedNanos);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
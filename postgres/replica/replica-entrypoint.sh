@@ -0,0 +1,18 @@
+#!/bin/sh
+# Clones the primary into an empty data directory and starts it as a hot standby.
+# pg_basebackup -R writes standby.signal and primary_conninfo, so later starts just resume streaming.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_isready -h "$PRIMARY_HOST" -U replicator; do
+        echo "Waiting for primary at $PRIMARY_HOST"
+        sleep 1
+    done
+    mkdir -p "$PGDATA"
+    chown postgres:postgres "$PGDATA"
+    chmod 700 "$PGDATA"
+    PGPASSWORD="$REPLICATION_PASSWORD" su-exec postgres \
+        pg_basebackup -h "$PRIMARY_HOST" -U replicator -D "$PGDATA" -R -X stream
+fi
+
+exec docker-entrypoint.sh postgres